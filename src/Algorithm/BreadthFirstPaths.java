@@ -1,22 +1,24 @@
 package Algorithm;
 
 import DataStructure.Graph;
+import DataStructure.Map.IntIntMap;
+import DataStructure.Map.IntSet;
 
 import static DataStructure.Graph.Edge; // 为了实现有权重的图的最短路径寻找，定义Edge(toVertex, weight)
 
 import java.util.*;
 
 public class BreadthFirstPaths {
-    private final Set<Integer> marked;
-    private final Map<Integer, Integer> edgeTo; // 记录该节点的父节点，Mapping vertex -> parent
+    private final IntSet marked;
+    private final IntIntMap edgeTo; // 记录该节点的父节点，Mapping vertex -> parent
     private final int start;
-    private final Map<Integer, Integer> distTo; // 记录该节点到起始节点的距离
+    private final IntIntMap distTo; // 记录该节点到起始节点的距离
 
     BreadthFirstPaths(Graph graph, int start) {
-        this.marked = new HashSet<>();
-        this.edgeTo = new HashMap<>();
+        this.marked = new IntSet();
+        this.edgeTo = new IntIntMap();
         this.start = start;
-        this.distTo = new HashMap<>();
+        this.distTo = new IntIntMap();
         bfs(graph, start);
     }
 
@@ -24,6 +26,7 @@ public class BreadthFirstPaths {
         Queue<Integer> fringe = new LinkedList<>(); // 用队列来存储待访问的节点
         fringe.offer(start); // 将起始节点加入队列
         marked.add(start); // 标记起始节点已访问
+        distTo.put(start, 0);
 
         while (!fringe.isEmpty()) {
             int v = fringe.poll(); // 取出队列中的第一个节点
@@ -31,7 +34,7 @@ public class BreadthFirstPaths {
                 if (!marked.contains(neighbor.toVertex())) {
                     fringe.offer(neighbor.toVertex()); // 将该未访问的邻居节点加入队列
                     edgeTo.put(neighbor.toVertex(), v); // 记录路径
-                    distTo.put(neighbor.toVertex(), distTo.get(v) + 1);
+                    distTo.put(neighbor.toVertex(), distTo.get(v, 0) + 1);
                     marked.add(neighbor.toVertex()); // 标记邻居节点已访问
                 }
             }
@@ -39,7 +42,7 @@ public class BreadthFirstPaths {
     }
 
     // 返回所有从起始节点出发可到达的节点
-    public Set<Integer> reachableVertices() {
+    public IntSet reachableVertices() {
         return marked;
     }
 
@@ -49,7 +52,7 @@ public class BreadthFirstPaths {
             return null;
         }
         List<Integer> path = new ArrayList<>();
-        for (int x = vertex; x != start;  x = edgeTo.get(x)) {
+        for (int x = vertex; x != start;  x = edgeTo.get(x, start)) {
             path.add(x);
         }
         path.add(start);
@@ -1,20 +1,22 @@
 package Algorithm;
 
 import DataStructure.Graph;
+import DataStructure.Map.IntIntMap;
+import DataStructure.Map.IntSet;
 
 import java.util.*;
 import static DataStructure.Graph.Edge;
 
 public class DepthFirstPaths {
-    private final Set<Integer> marked;
+    private final IntSet marked;
     private final int start;
-    private final Map<Integer, Integer> edgeTo;
+    private final IntIntMap edgeTo;
     private final boolean reverse;
 
     public DepthFirstPaths(Graph graph, int start, boolean reverse) {
-        this.marked = new HashSet<>();
+        this.marked = new IntSet();
         this.start = start;
-        this.edgeTo = new HashMap<>(); // 使用Map来动态存储已访问的父节点
+        this.edgeTo = new IntIntMap(); // 使用不装箱的 IntIntMap 来动态存储已访问的父节点
         this.reverse = reverse; // 标志是否反向搜索
         dfs(graph, start);
     }
@@ -33,7 +35,7 @@ public class DepthFirstPaths {
     }
 
     // 返回所有从起始节点出发可到达的节点
-    public Set<Integer> reachableVertices() {
+    public IntSet reachableVertices() {
         return marked;
     }
 
@@ -44,7 +46,7 @@ public class DepthFirstPaths {
             return null;
         }
         List<Integer> path = new ArrayList<>();
-        for (int x = vertex; x != start;  x = edgeTo.get(x)) {
+        for (int x = vertex; x != start;  x = edgeTo.get(x, start)) {
             path.add(x);
         }
         path.add(start);
@@ -19,7 +19,7 @@ public class KruskalMST {
         edges.sort(Comparator.comparingInt(Edge::weight));
 
         // 创建并查集，初始化时每个节点都是一个独立的集合
-        UnionFind uf = new UnionFind(graph.getVertices().size());
+        UnionFind uf = new UnionFind(graph.getVertices().length);
 
         // 依次处理每条边，按权重从小到大
         for (Edge edge : edges) {
@@ -1,21 +1,23 @@
 package Algorithm.MST;
 import DataStructure.Graph;
+import DataStructure.Map.IntIntMap;
+import DataStructure.Map.IntSet;
 import static DataStructure.Graph.Edge;
 import java.util.*;
 
 public class PrimMST {
     private final Queue<VertexWeightPair> pq;
     private final int start;
-    private final Map<Integer, Integer> weightTo;
-    private final Map<Integer, Integer> edgeTo;
-    private final Set<Integer> marked;
+    private final IntIntMap weightTo; // 缺省即为 Integer.MAX_VALUE
+    private final IntIntMap edgeTo;
+    private final IntSet marked;
 
     public PrimMST(Graph graph, int start) {
         this.pq = new PriorityQueue<>(Comparator.comparingInt(pair -> pair.weight));
         this.start = start;
-        this.weightTo = new HashMap<>();
-        this.edgeTo = new HashMap<>();
-        this.marked = new HashSet<>();
+        this.weightTo = new IntIntMap();
+        this.edgeTo = new IntIntMap();
+        this.marked = new IntSet();
 
         // 初始化节点
         weightTo.put(start, 0);
@@ -28,8 +30,7 @@ public class PrimMST {
             int vertex = current.vertex;
 
             // 如果该节点已经被处理，跳过
-            if (marked.contains(vertex)) continue;
-            marked.add(vertex);
+            if (!marked.add(vertex)) continue;
 
             // scan所有邻接节点
             for (Edge edge : graph.neighbors(vertex)) {
@@ -42,33 +43,34 @@ public class PrimMST {
         int toVertex = edge.toVertex();
         int weight = edge.weight();
 
-        // 如果 weightTo 中没有 toVertex，则初始化它为 Integer.MAX_VALUE
-        if (!weightTo.containsKey(toVertex)) {
-            weightTo.put(toVertex, Integer.MAX_VALUE);
-        }
-
-        if (!marked.contains(toVertex) && weight < weightTo.get(toVertex)) {
+        // weightTo 中没有 toVertex 时视为 Integer.MAX_VALUE
+        if (!marked.contains(toVertex) && weight < weightTo.get(toVertex, Integer.MAX_VALUE)) {
             weightTo.put(toVertex, weight);
             edgeTo.put(toVertex, vertex);
 
-            pq.add(new VertexWeightPair(toVertex, weightTo.get(toVertex)));
+            pq.add(new VertexWeightPair(toVertex, weight));
         }
     }
 
     // 返回MST的边集
     public List<String> getMSTEdges() {
         List<String> edges = new ArrayList<>();
-        for (Map.Entry<Integer, Integer> entry : edgeTo.entrySet()) {
-            int to = entry.getKey();
-            int from = entry.getValue();
-            edges.add(from + " - " + to + " (weight: " + weightTo.get(to) + ")");
+        int[] vertices = edgeTo.keys();
+        Arrays.sort(vertices); // 按顶点顺序输出
+        for (int to : vertices) {
+            int from = edgeTo.get(to, to);
+            edges.add(from + " - " + to + " (weight: " + weightTo.get(to, 0) + ")");
         }
         return edges;
     }
 
     // 返回MST的总权重
     public int getTotalWeight() {
-        return weightTo.values().stream().mapToInt(Integer::intValue).sum();
+        int total = 0;
+        for (int vertex : weightTo.keys()) {
+            total += weightTo.get(vertex, 0);
+        }
+        return total;
     }
 
     private record VertexWeightPair(int vertex, int weight) {
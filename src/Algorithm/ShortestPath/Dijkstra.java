@@ -1,20 +1,21 @@
 package Algorithm.ShortestPath;
 
 import DataStructure.Graph;
+import DataStructure.Map.IntIntMap;
 
 import static DataStructure.Graph.Edge;
 
 import java.util.*;
 
 public class Dijkstra {
-    private final Map<Integer, Integer> distTo; // 距离表，存储从起点到每个节点的最短已知距离
-    private final Map<Integer, Integer> edgeTo; // 父节点映射，存储每个节点在已知最短路径上的前一个节点
+    private final IntIntMap distTo; // 距离表，存储从起点到每个节点的最短已知距离，缺省即为 Integer.MAX_VALUE
+    private final IntIntMap edgeTo; // 父节点映射，存储每个节点在已知最短路径上的前一个节点
     private final Queue<VertexDistancePair> pq; // 优先级队列，用于选择当前距离最短的节点
     private final int start;
 
     public Dijkstra(Graph graph, int start) {
-        this.distTo = new HashMap<>();
-        this.edgeTo = new HashMap<>();
+        this.distTo = new IntIntMap();
+        this.edgeTo = new IntIntMap();
         this.start = start;
         pq = new PriorityQueue<>(Comparator.comparingInt(pair -> pair.distance));
 
@@ -39,24 +40,21 @@ public class Dijkstra {
         int toVertex = edge.toVertex();
         int weight = edge.weight();
 
-        // 如果 weightTo 中没有 toVertex，则初始化它为 Integer.MAX_VALUE
-        if (!distTo.containsKey(toVertex)) {
-            distTo.put(toVertex, Integer.MAX_VALUE);
-        }
-
-        if (distTo.get(vertex) + weight < distTo.get(toVertex)) {
-            distTo.put(toVertex, distTo.get(vertex) + weight);
+        // distTo 中没有 toVertex 时视为 Integer.MAX_VALUE
+        int newDist = distTo.get(vertex, Integer.MAX_VALUE) + weight;
+        if (newDist < distTo.get(toVertex, Integer.MAX_VALUE)) {
+            distTo.put(toVertex, newDist);
             edgeTo.put(toVertex, vertex);
 
             // 如果优先队列中已经有这个节点，更新它的优先级
             pq.removeIf(pair -> pair.vertex == toVertex); // 移除旧的距离
-            pq.add(new VertexDistancePair(toVertex, distTo.get(toVertex))); // 插入新的距离
+            pq.add(new VertexDistancePair(toVertex, newDist)); // 插入新的距离
         }
     }
 
     // 返回从起点到指定节点的最短路径距离
     public int distTo(int vertex) {
-        return distTo.getOrDefault(vertex, Integer.MAX_VALUE);
+        return distTo.get(vertex, Integer.MAX_VALUE);
     }
 
     // 返回从起点到指定节点的路径
@@ -64,7 +62,7 @@ public class Dijkstra {
         if (!hasPathTo(vertex)) return null;
 
         List<Integer> path = new ArrayList<>();
-        for (int x = vertex; x != start; x = edgeTo.get(x)) {
+        for (int x = vertex; x != start; x = edgeTo.get(x, start)) {
             path.add(x);
         }
         path.add(start);
@@ -74,7 +72,7 @@ public class Dijkstra {
 
     // 判断是否存在从起点到目标节点的路径
     public boolean hasPathTo(int vertex) {
-        return distTo.get(vertex) < Integer.MAX_VALUE;
+        return distTo.get(vertex, Integer.MAX_VALUE) < Integer.MAX_VALUE;
     }
 
     // 优先级队列pq中的元素
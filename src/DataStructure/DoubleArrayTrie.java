@@ -0,0 +1,162 @@
+package DataStructure;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A read-only trie packed into one int array, built by Trie.toDoubleArrayTrie().
+ *
+ * Every node is a state, an index into the classic double array of base[] and
+ * check[]. Characters are first mapped to codes 1..A, A being the number of distinct
+ * characters in the dictionary, in character order. The child of state s by a
+ * character with code c is state t = base[s] + c, and it exists exactly when
+ * check[t] == s. A state without children has base 0. The two arrays are interleaved
+ * as (base, check) pairs, so a lookup touches one cache line per character, and the
+ * whole trie costs eight bytes per slot plus a bit for the end-of-word flag.
+ *
+ * Enumerating the children of a state tries every code, so collect() and
+ * keysWithPrefix() cost O(A) per visited node; they suit alphabets of up to a few
+ * hundred characters.
+ */
+public class DoubleArrayTrie {
+
+    // units[2s] is base[s], the offset of the children of s or 0 if it has none, and
+    // units[2s + 1] is check[s], the parent of s or -1 for an unused slot
+    private final int[] units;
+    private final int states; // Slots in the double array
+    private final BitSet isEndOfWord; // States at which a complete word ends
+    private final char[] alphabet; // Characters in ascending order; code c is alphabet[c - 1]
+    private final int[] codes; // Code of each character up to the largest one, 0 if unused
+    private final int size; // Number of words
+
+    DoubleArrayTrie(int[] base, int[] check, BitSet isEndOfWord, char[] alphabet, int size) {
+        this.states = base.length;
+        this.units = new int[2 * states];
+        for (int s = 0; s < states; s++) {
+            units[2 * s] = base[s];
+            units[2 * s + 1] = check[s];
+        }
+        this.isEndOfWord = isEndOfWord;
+        this.alphabet = alphabet;
+        this.codes = new int[alphabet.length == 0 ? 0 : alphabet[alphabet.length - 1] + 1];
+        for (int i = 0; i < alphabet.length; i++) {
+            codes[alphabet[i]] = i + 1;
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of words in the trie.
+     * @return the number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the double array, used and unused.
+     * @return the length of base[] and check[]
+     */
+    public int capacity() {
+        return states;
+    }
+
+    /**
+     * Searches for a word in the trie (exact match).
+     * @param word the word to search for
+     * @return true if the word exists, false otherwise
+     */
+    public boolean search(String word) {
+        int state = walk(word);
+        return state >= 0 && isEndOfWord.get(state);
+    }
+
+    /**
+     * Checks if there's any word in the trie that starts with the given prefix.
+     * @param prefix the prefix to check
+     * @return true if any word starts with the prefix, false otherwise
+     */
+    public boolean startWith(String prefix) {
+        return walk(prefix) >= 0;
+    }
+
+    /**
+     * Returns all words stored in the trie, in character order.
+     * @return a list of all words in the trie
+     */
+    public List<String> collect() {
+        return keysWithPrefix("");
+    }
+
+    /**
+     * Finds and returns all words in the trie that start with the given prefix.
+     * @param prefix the prefix to search for
+     * @return a list of words that start with the given prefix, in character order
+     */
+    public List<String> keysWithPrefix(String prefix) {
+        List<String> results = new ArrayList<>();
+        int state = walk(prefix);
+        if (state >= 0) {
+            collectAllWords(state, new StringBuilder(prefix), results);
+        }
+        return results;
+    }
+
+    /**
+     * Finds the longest prefix of the given word that exists in the trie.
+     * @param word the word to search for
+     * @return the longest matching prefix
+     */
+    public String longestPrefixOf(String word) {
+        int state = 0;
+        int length = 0;
+        for (int i = 0; i < word.length(); i++) {
+            state = child(state, word.charAt(i));
+            if (state < 0) {
+                break;
+            }
+            if (isEndOfWord.get(state)) {
+                length = i + 1;
+            }
+        }
+        return word.substring(0, length);
+    }
+
+    // Returns the state reached by C from STATE, or -1
+    private int child(int state, char c) {
+        int offset = units[2 * state];
+        if (c >= codes.length || codes[c] == 0 || offset == 0) {
+            return -1;
+        }
+        int next = offset + codes[c];
+        return next < states && units[2 * next + 1] == state ? next : -1;
+    }
+
+    // Returns the state reached by WORD from the root, or -1
+    private int walk(String word) {
+        int state = 0;
+        for (int i = 0; i < word.length() && state >= 0; i++) {
+            state = child(state, word.charAt(i));
+        }
+        return state;
+    }
+
+    // Helper: Recursively collects all words below STATE
+    private void collectAllWords(int state, StringBuilder word, List<String> results) {
+        if (isEndOfWord.get(state)) {
+            results.add(word.toString());
+        }
+        int offset = units[2 * state];
+        if (offset == 0) {
+            return;
+        }
+        for (int code = 1; code <= alphabet.length && offset + code < states; code++) {
+            if (units[2 * (offset + code) + 1] == state) {
+                word.append(alphabet[code - 1]);
+                collectAllWords(offset + code, word, results);
+                word.deleteCharAt(word.length() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package DataStructure;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A minimum priority queue that can hold more items than fit in the Java heap.
+ *
+ * New items go into an in-memory MinPQ buffer. Once the buffer holds the configured
+ * number of items it is drained in sorted order into a run file in the temp directory,
+ * written sequentially. Each run is read back through a sliding memory-mapped window,
+ * and poll() performs a k-way merge over the buffer and the heads of all runs, using
+ * a second MinPQ keyed by each run's current head.
+ *
+ * The merge fan-in is capped: when a spill would leave more than maxFanIn runs on
+ * disk, the smallest runs are first merged into one longer run. Every live run holds
+ * an open channel and a mapped window, so the cap bounds both the number of open files
+ * and the mapped footprint, at the cost of rewriting each item a logarithmic number of
+ * times as the queue grows.
+ *
+ * Items may be added at any time, including after polling has started.
+ * Run files are deleted as soon as they are exhausted, and on close().
+ *
+ * @param <T> The type of elements held in this priority queue, which must be comparable.
+ */
+public class ExternalMinPQ<T extends Comparable<T>> implements Closeable {
+    private static final int DEFAULT_MAX_BUFFERED_ITEMS = 1 << 20;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+    private static final int DEFAULT_WINDOW_BYTES = 1 << 22;
+    private static final int DEFAULT_MAX_FAN_IN = 64;
+
+    private final Serializer<T> serializer;
+    private final int maxBufferedItems; // Memory budget: items kept on the heap before spilling
+    private final int maxFanIn; // Most runs kept on disk, and so most files open at once
+    private final Path tempDir;
+    private final MinPQ<T> buffer; // In-memory part of the queue
+    private final MinPQ<Run> runs; // Spilled runs, ordered by their current head
+    private final List<Run> openRuns; // Every run not yet deleted, for close()
+    private long size;
+
+    /**
+     * Constructs an ExternalMinPQ that keeps at most 2^20 items in memory and
+     * spills to the default temp directory.
+     *
+     * @param serializer The codec used to write items to run files.
+     */
+    public ExternalMinPQ(Serializer<T> serializer) {
+        this(serializer, DEFAULT_MAX_BUFFERED_ITEMS);
+    }
+
+    /**
+     * Constructs an ExternalMinPQ that spills to the default temp directory.
+     *
+     * @param serializer The codec used to write items to run files.
+     * @param maxBufferedItems The number of items kept in memory before spilling a run.
+     */
+    public ExternalMinPQ(Serializer<T> serializer, int maxBufferedItems) {
+        this(serializer, maxBufferedItems, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Constructs an ExternalMinPQ that merges at most 64 runs at a time.
+     *
+     * @param serializer The codec used to write items to run files.
+     * @param maxBufferedItems The number of items kept in memory before spilling a run.
+     * @param tempDir The directory in which run files are created.
+     */
+    public ExternalMinPQ(Serializer<T> serializer, int maxBufferedItems, Path tempDir) {
+        this(serializer, maxBufferedItems, tempDir, DEFAULT_MAX_FAN_IN);
+    }
+
+    /**
+     * Constructs an ExternalMinPQ.
+     *
+     * @param serializer The codec used to write items to run files.
+     * @param maxBufferedItems The number of items kept in memory before spilling a run.
+     * @param tempDir The directory in which run files are created.
+     * @param maxFanIn The most runs kept on disk at once; at least 2.
+     */
+    public ExternalMinPQ(Serializer<T> serializer, int maxBufferedItems, Path tempDir, int maxFanIn) {
+        if (maxBufferedItems <= 0) {
+            throw new IllegalArgumentException("maxBufferedItems must be positive");
+        }
+        if (maxFanIn < 2) {
+            throw new IllegalArgumentException("maxFanIn must be at least 2");
+        }
+        this.serializer = serializer;
+        this.maxBufferedItems = maxBufferedItems;
+        this.maxFanIn = maxFanIn;
+        this.tempDir = tempDir;
+        this.buffer = new MinPQ<>(Math.min(maxBufferedItems, 1024));
+        this.runs = new MinPQ<>();
+        this.openRuns = new ArrayList<>();
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of elements in the priority queue, on disk and in memory.
+     *
+     * @return The size of the priority queue.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Checks if the priority queue is empty.
+     *
+     * @return true if the priority queue is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of run files currently on disk.
+     *
+     * @return The number of live runs.
+     */
+    public int runCount() {
+        return openRuns.size();
+    }
+
+    /**
+     * Adds an item to the priority queue, spilling the in-memory buffer to a new
+     * run file first if it is full.
+     *
+     * @param item The item to add.
+     */
+    public void add(T item) {
+        if (buffer.size() >= maxBufferedItems) {
+            spill();
+        }
+        buffer.add(item);
+        size += 1;
+    }
+
+    /**
+     * Returns the smallest item in the priority queue without removing it.
+     *
+     * @return The smallest item, or null if the priority queue is empty.
+     */
+    public T peek() {
+        T inMemory = buffer.peek();
+        Run run = runs.peek();
+        if (run == null) {
+            return inMemory;
+        }
+        if (inMemory == null || run.head.compareTo(inMemory) < 0) {
+            return run.head;
+        }
+        return inMemory;
+    }
+
+    /**
+     * Removes and returns the smallest item from the priority queue.
+     *
+     * @return The smallest item, or null if the priority queue is empty.
+     */
+    public T poll() {
+        if (size == 0) {
+            return null;
+        }
+        size -= 1;
+        T inMemory = buffer.peek();
+        Run run = runs.peek();
+        if (run == null || (inMemory != null && inMemory.compareTo(run.head) <= 0)) {
+            return buffer.poll();
+        }
+
+        runs.poll();
+        T result = run.head;
+        if (run.advance()) {
+            runs.add(run); // Re-insert with its new head
+        } else {
+            run.delete();
+            openRuns.remove(run);
+        }
+        return result;
+    }
+
+    /**
+     * Deletes every run file and empties the queue.
+     */
+    @Override
+    public void close() {
+        for (Run run : openRuns) {
+            run.delete();
+        }
+        openRuns.clear();
+        while (!runs.isEmpty()) {
+            runs.poll();
+        }
+        while (!buffer.isEmpty()) {
+            buffer.poll();
+        }
+        size = 0;
+    }
+
+    /**
+     * Drains the in-memory buffer, in sorted order, into a new run file. If that would
+     * leave more than maxFanIn runs, the smallest runs are merged first.
+     */
+    private void spill() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        if (openRuns.size() >= maxFanIn) {
+            mergeSmallestRuns();
+        }
+        Path file = createRunFile();
+        long count = 0;
+        try (DataOutputStream out = openRunFile(file)) {
+            while (!buffer.isEmpty()) {
+                serializer.write(buffer.poll(), out);
+                count += 1;
+            }
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Failed to spill run to " + tempDir, e);
+        }
+        addRun(new Run(file, count));
+    }
+
+    /**
+     * Replaces the smallest half of the runs (at least two) with a single run holding
+     * their remaining items. Merging runs of similar length keeps the number of times
+     * each item is rewritten logarithmic in the number of spills.
+     */
+    private void mergeSmallestRuns() {
+        List<Run> bySize = new ArrayList<>(openRuns);
+        bySize.sort((a, b) -> Long.compare(a.remaining, b.remaining));
+        List<Run> victims = bySize.subList(0, Math.max(2, openRuns.size() / 2));
+
+        // Merging moves the victims' heads, so empty the poll queue while they are still valid
+        while (!runs.isEmpty()) {
+            runs.poll();
+        }
+        MinPQ<Run> merge = new MinPQ<>(victims.size());
+        for (Run run : victims) {
+            merge.add(run);
+        }
+        Path file = createRunFile();
+        long count = 0;
+        try (DataOutputStream out = openRunFile(file)) {
+            while (!merge.isEmpty()) {
+                Run run = merge.poll();
+                serializer.write(run.head, out);
+                count += 1;
+                if (run.advance()) {
+                    merge.add(run);
+                }
+            }
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Failed to merge runs into " + tempDir, e);
+        }
+
+        for (Run run : victims) {
+            run.delete();
+        }
+        openRuns.removeAll(victims);
+        for (Run run : openRuns) {
+            runs.add(run);
+        }
+        addRun(new Run(file, count));
+    }
+
+    private void addRun(Run run) {
+        openRuns.add(run);
+        if (run.advance()) {
+            runs.add(run);
+        }
+    }
+
+    private Path createRunFile() {
+        try {
+            return Files.createTempFile(tempDir, "minpq-run-", ".bin");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create run in " + tempDir, e);
+        }
+    }
+
+    private DataOutputStream openRunFile(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), WRITE_BUFFER_BYTES));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // The write already failed; that is the error worth reporting
+        }
+    }
+
+    /**
+     * A sorted run on disk. The file is read through a memory-mapped window that
+     * slides forward whenever the next record would cross its end.
+     */
+    private class Run implements Comparable<Run> {
+        private final Path file;
+        private final FileChannel channel;
+        private final long fileSize;
+        private long remaining; // Records not yet decoded
+        private long windowStart; // File offset of the current window
+        private int windowBytes;
+        private MappedByteBuffer window;
+        private T head; // The smallest item of this run not yet polled
+
+        private Run(Path file, long count) {
+            this.file = file;
+            this.remaining = count;
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+                this.fileSize = channel.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open run " + file, e);
+            }
+            this.windowStart = 0;
+            this.windowBytes = DEFAULT_WINDOW_BYTES;
+            map(0);
+        }
+
+        /**
+         * Decodes the next record into head.
+         *
+         * @return false if the run is exhausted.
+         */
+        private boolean advance() {
+            if (remaining == 0) {
+                head = null;
+                return false;
+            }
+            while (true) {
+                int start = window.position();
+                try {
+                    head = serializer.read(window);
+                    remaining -= 1;
+                    return true;
+                } catch (BufferUnderflowException e) {
+                    // The record straddles the end of the window
+                    long offset = windowStart + start;
+                    if (windowStart + window.limit() >= fileSize && offset == windowStart) {
+                        throw new IllegalStateException("Truncated run file " + file);
+                    }
+                    if (offset == windowStart) {
+                        windowBytes *= 2; // A single record is larger than the window
+                    }
+                    map(offset);
+                }
+            }
+        }
+
+        private void map(long offset) {
+            try {
+                long length = Math.min(windowBytes, fileSize - offset);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                windowStart = offset;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map run " + file, e);
+            }
+        }
+
+        private void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete run " + file, e);
+            }
+        }
+
+        @Override
+        public int compareTo(Run other) {
+            return head.compareTo(other.head);
+        }
+    }
+
+    /**
+     * Main method to test the ExternalMinPQ functionality.
+     *
+     * @param args Command-line arguments (not used).
+     */
+    public static void main(String[] args) {
+        try (ExternalMinPQ<Integer> pq = new ExternalMinPQ<>(Serializer.INTEGER, 4)) {
+            int[] items = {10, 5, 15, 3, 8, 1, 12, 7, 4, 20};
+            for (int item : items) {
+                pq.add(item);
+            }
+            System.out.println("Runs on disk: " + pq.runCount()); // Expected output: 2
+
+            // Poll elements to verify they are returned in sorted order
+            while (!pq.isEmpty()) {
+                System.out.println(pq.poll()); // Expected output: 1, 3, 4, 5, 7, 8, 10, 12, 15, 20
+            }
+        }
+    }
+}
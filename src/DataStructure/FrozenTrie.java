@@ -0,0 +1,283 @@
+package DataStructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A read-only trie in succinct LOUDS form, built by Trie.freeze().
+ *
+ * Nodes are numbered 0, 1, 2, ... in breadth-first order, children in character order,
+ * so the children of any node are consecutive. The shape of the tree is a bit vector
+ * holding, for each node in that order, one 1 per child followed by a 0: 2n - 1 bits for
+ * n nodes. Node i's block starts just after the i-th 0 and runs up to the next 0, and
+ * since each 1 before it stands for one node other than the root, its first child is
+ * node start - i + 1. Stepping to a child thus costs one select0 query, answered in
+ * near-constant time from the number of zeros before each 512-bit block plus a sample
+ * every 512 zeros, and a scan for the next 0.
+ *
+ * The character on the edge into node j is label j - 1. When the dictionary uses at
+ * most 256 distinct characters, labels are stored as one-byte codes into the sorted
+ * alphabet, otherwise as chars. With an end-of-word bit per node, a dictionary over a
+ * small alphabet takes a little over 11 bits per node, against dozens of bytes per
+ * node for the pointer-based Trie.
+ */
+public class FrozenTrie {
+
+    private static final int BLOCK_WORDS = 8; // 512 bits per directory entry
+    private static final int ZERO_SAMPLE = 512; // Zeros between select0 samples
+    private static final int LINEAR_SCAN_CHILDREN = 8;
+
+    private final long[] louds; // The LOUDS bit vector, least significant bit first
+    private final int[] zerosBefore; // Zeros before each block, then the total
+    private final int[] zeroSamples; // zeroSamples[k]: block holding zero number k * ZERO_SAMPLE + 1
+    private final char[] alphabet; // Distinct labels in ascending order
+    private final byte[] labelCodes; // Alphabet index of each label if the alphabet is small, else null
+    private final char[] wideLabels; // Each label if the alphabet is large, else null
+    private final long[] isEndOfWord; // One bit per node
+    private final int nodes; // Number of nodes
+    private final int size; // Number of words
+
+    FrozenTrie(long[] louds, char[] labels, long[] isEndOfWord, int nodes, int size) {
+        this.louds = louds;
+        this.isEndOfWord = isEndOfWord;
+        this.nodes = nodes;
+        this.size = size;
+
+        // Directory of zero counts per block, and the block of every ZERO_SAMPLE-th zero
+        int bits = 2 * nodes - 1;
+        int blocks = (louds.length + BLOCK_WORDS - 1) / BLOCK_WORDS;
+        zerosBefore = new int[blocks + 1];
+        zeroSamples = new int[(nodes + ZERO_SAMPLE - 1) / ZERO_SAMPLE];
+        int zeros = 0;
+        int samples = 0;
+        for (int b = 0; b < blocks; b++) {
+            zerosBefore[b] = zeros;
+            for (int w = b * BLOCK_WORDS; w < Math.min(louds.length, (b + 1) * BLOCK_WORDS); w++) {
+                int valid = Math.min(64, bits - 64 * w);
+                long mask = valid == 64 ? -1L : (1L << valid) - 1;
+                zeros += Long.bitCount(~louds[w] & mask);
+                while (samples < zeroSamples.length && zeros > samples * ZERO_SAMPLE) {
+                    zeroSamples[samples++] = b;
+                }
+            }
+        }
+        zerosBefore[blocks] = zeros;
+
+        char[] sorted = labels.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        alphabet = Arrays.copyOf(sorted, distinct);
+        if (distinct <= 256) {
+            labelCodes = new byte[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                labelCodes[i] = (byte) Arrays.binarySearch(alphabet, labels[i]);
+            }
+            wideLabels = null;
+        } else {
+            labelCodes = null;
+            wideLabels = labels;
+        }
+    }
+
+    /**
+     * Returns the number of words in the trie.
+     * @return the number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of nodes in the trie, the root included.
+     * @return the number of nodes
+     */
+    public int nodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of bytes taken by the arrays of this trie.
+     * @return the approximate memory footprint, headers excluded
+     */
+    public long sizeInBytes() {
+        long labels = labelCodes != null ? labelCodes.length : 2L * wideLabels.length;
+        return 8L * louds.length + 4L * zerosBefore.length + 4L * zeroSamples.length
+                + 2L * alphabet.length + labels + 8L * isEndOfWord.length;
+    }
+
+    /**
+     * Searches for a word in the trie (exact match).
+     * @param word the word to search for
+     * @return true if the word exists, false otherwise
+     */
+    public boolean search(String word) {
+        int node = walk(word);
+        return node >= 0 && isEnd(node);
+    }
+
+    /**
+     * Checks if there's any word in the trie that starts with the given prefix.
+     * @param prefix the prefix to check
+     * @return true if any word starts with the prefix, false otherwise
+     */
+    public boolean startWith(String prefix) {
+        return walk(prefix) >= 0;
+    }
+
+    /**
+     * Returns all words stored in the trie.
+     * @return a list of all words in the trie, in character order
+     */
+    public List<String> collect() {
+        return keysWithPrefix("");
+    }
+
+    /**
+     * Finds and returns all words in the trie that start with the given prefix.
+     * @param prefix the prefix to search for
+     * @return a list of words that start with the given prefix, in character order
+     */
+    public List<String> keysWithPrefix(String prefix) {
+        List<String> results = new ArrayList<>();
+        int node = walk(prefix);
+        if (node >= 0) {
+            collectAllWords(node, new StringBuilder(prefix), results);
+        }
+        return results;
+    }
+
+    /**
+     * Finds the longest prefix of the given word that exists in the trie.
+     * @param word the word to search for
+     * @return the longest matching prefix
+     */
+    public String longestPrefixOf(String word) {
+        int node = 0;
+        int length = 0; // Track the length of the matching prefix
+        for (int i = 0; i < word.length(); i++) {
+            node = child(node, word.charAt(i));
+            if (node < 0) {
+                break; // Stop if the path breaks
+            }
+            if (isEnd(node)) {
+                length = i + 1; // Update the length if it's a valid word
+            }
+        }
+        return word.substring(0, length);
+    }
+
+    private boolean isEnd(int node) {
+        return (isEndOfWord[node >>> 6] & (1L << node)) != 0;
+    }
+
+    // Returns the node reached by WORD from the root, or -1
+    private int walk(String word) {
+        int node = 0;
+        for (int i = 0; i < word.length() && node >= 0; i++) {
+            node = child(node, word.charAt(i));
+        }
+        return node;
+    }
+
+    // Position of the first bit of NODE's block
+    private int blockStart(int node) {
+        return node == 0 ? 0 : select0(node) + 1;
+    }
+
+    // Returns the child of NODE reached by C, or -1
+    private int child(int node, char c) {
+        int start = blockStart(node);
+        int count = nextZero(start) - start;
+        if (count == 0) {
+            return -1;
+        }
+        int first = start - node; // Label index of the first child
+        int lo = first;
+        int hi = first + count - 1;
+        if (labelCodes != null) {
+            int code = Arrays.binarySearch(alphabet, c);
+            if (code < 0) {
+                return -1;
+            }
+            if (count <= LINEAR_SCAN_CHILDREN) {
+                for (int j = lo; j <= hi; j++) {
+                    if ((labelCodes[j] & 0xFF) == code) {
+                        return j + 1;
+                    }
+                }
+                return -1;
+            }
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int label = labelCodes[mid] & 0xFF;
+                if (label < code) {
+                    lo = mid + 1;
+                } else if (label > code) {
+                    hi = mid - 1;
+                } else {
+                    return mid + 1;
+                }
+            }
+            return -1;
+        }
+        int j = Arrays.binarySearch(wideLabels, lo, hi + 1, c);
+        return j >= 0 ? j + 1 : -1;
+    }
+
+    private char label(int node) {
+        return labelCodes != null ? alphabet[labelCodes[node - 1] & 0xFF] : wideLabels[node - 1];
+    }
+
+    // Position of the R-th zero of the bit vector, counting from 1
+    private int select0(int r) {
+        int block = zeroSamples[(r - 1) / ZERO_SAMPLE];
+        while (zerosBefore[block + 1] < r) {
+            block += 1;
+        }
+        r -= zerosBefore[block];
+        int w = block * BLOCK_WORDS;
+        while (true) {
+            int zeros = Long.bitCount(~louds[w]);
+            if (zeros >= r) {
+                break;
+            }
+            r -= zeros;
+            w += 1;
+        }
+        long x = ~louds[w];
+        for (int i = 1; i < r; i++) {
+            x &= x - 1; // Drop the lowest zero
+        }
+        return 64 * w + Long.numberOfTrailingZeros(x);
+    }
+
+    // Position of the first zero at or after POSITION
+    private int nextZero(int position) {
+        int w = position >>> 6;
+        long x = ~louds[w] & (-1L << position);
+        while (x == 0) {
+            x = ~louds[++w];
+        }
+        return 64 * w + Long.numberOfTrailingZeros(x);
+    }
+
+    // Helper: Recursively collects all words below NODE, whose path is WORD
+    private void collectAllWords(int node, StringBuilder word, List<String> results) {
+        if (isEnd(node)) {
+            results.add(word.toString()); // Add the word to results if it's complete
+        }
+        int start = blockStart(node);
+        int end = nextZero(start);
+        for (int child = start - node + 1; child <= end - node; child++) {
+            word.append(label(child)); // Add the character
+            collectAllWords(child, word, results); // Recurse into the next node
+            word.deleteCharAt(word.length() - 1); // Backtrack after recursion
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package DataStructure.Map;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ *  A Map implementation for maps that are usually tiny.
+ *
+ *  Up to flatCapacity entries (8 by default) are kept in one flat array of alternating
+ *  keys and values, searched linearly. For a handful of keys a scan of a few adjacent
+ *  references beats hashing, and the map costs one object and one small array instead
+ *  of a bucket array plus a node per entry. The array starts with room for two entries
+ *  and doubles as needed, and an empty map allocates no array at all.
+ *
+ *  Inserting one entry past flatCapacity promotes the map to a RobinHoodHashMap.
+ *  Removals demote it back to a flat array once it holds half of flatCapacity, so
+ *  a map whose size hovers around the threshold does not convert on every update.
+ *
+ *  Assumes null keys will never be inserted.
+ */
+public class AdaptiveMap<K, V> implements Map61B<K, V> {
+    /* Default value */
+    private static final int DEFAULT_FLAT_CAPACITY = 8;
+    private static final int INITIAL_FLAT_ENTRIES = 2;
+
+    /* Instance Variables */
+    private Object[] flat; // [key0, value0, key1, value1, ...], null while empty or promoted
+    private int flatSize; // Entries in flat
+    private RobinHoodHashMap<K, V> table; // Non-null once promoted
+    private final int flatCapacity;
+    private int modCount; // Structural modifications, for fail-fast iterators
+
+    /** Constructors */
+    public AdaptiveMap() {
+        this(DEFAULT_FLAT_CAPACITY);
+    }
+
+    /**
+     * AdaptiveMap constructor.
+     *
+     * @param flatCapacity number of entries kept in the flat array before promoting
+     */
+    public AdaptiveMap(int flatCapacity) {
+        if (flatCapacity < 1) {
+            throw new IllegalArgumentException("Flat capacity must be positive");
+        }
+        this.flatCapacity = flatCapacity;
+    }
+
+    /** Returns whether the entries currently live in a hash table. */
+    public boolean isPromoted() {
+        return table != null;
+    }
+
+    /* Returns the index in flat of KEY's key slot, or -1 */
+    private int indexOf(Object key) {
+        Object[] a = flat;
+        for (int i = 0, end = 2 * flatSize; i < end; i += 2) {
+            Object k = a[i];
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (table != null) {
+            int before = table.size();
+            table.put(key, value);
+            if (table.size() != before) {
+                modCount += 1;
+            }
+            return;
+        }
+        int i = flat == null ? -1 : indexOf(key);
+        if (i >= 0) {
+            flat[i + 1] = value;
+            return;
+        }
+        if (flatSize == flatCapacity) {
+            promote();
+            table.put(key, value);
+        } else {
+            if (flat == null) {
+                flat = new Object[2 * Math.min(INITIAL_FLAT_ENTRIES, flatCapacity)];
+            } else if (2 * flatSize == flat.length) {
+                Object[] grown = new Object[2 * Math.min(2 * flatSize, flatCapacity)];
+                System.arraycopy(flat, 0, grown, 0, flat.length);
+                flat = grown;
+            }
+            flat[2 * flatSize] = key;
+            flat[2 * flatSize + 1] = value;
+            flatSize += 1;
+        }
+        modCount += 1;
+    }
+
+    /* Moves the flat entries into a hash table */
+    @SuppressWarnings("unchecked")
+    private void promote() {
+        RobinHoodHashMap<K, V> promoted = new RobinHoodHashMap<>(2 * flatCapacity + 2);
+        for (int i = 0; i < 2 * flatSize; i += 2) {
+            promoted.put((K) flat[i], (V) flat[i + 1]);
+        }
+        table = promoted;
+        flat = null;
+        flatSize = 0;
+    }
+
+    /* Moves the hash table's entries back into a flat array */
+    private void demote() {
+        Object[] a = new Object[2 * flatCapacity];
+        int n = 0;
+        for (Map.Entry<K, V> e : table.entrySet()) {
+            a[n++] = e.getKey();
+            a[n++] = e.getValue();
+        }
+        flat = a;
+        flatSize = n / 2;
+        table = null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (table != null) {
+            return table.get(key);
+        }
+        if (flat == null) {
+            return null;
+        }
+        int i = indexOf(key);
+        return i < 0 ? null : (V) flat[i + 1];
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (table != null) {
+            return table.containsKey(key);
+        }
+        return flat != null && indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return table != null ? table.size() : flatSize;
+    }
+
+    @Override
+    public void clear() {
+        flat = null;
+        flatSize = 0;
+        table = null;
+        modCount += 1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (table != null) {
+            if (!table.containsKey(key)) {
+                return null;
+            }
+            V value = table.remove(key);
+            if (table.size() <= flatCapacity / 2) {
+                demote();
+            }
+            modCount += 1;
+            return value;
+        }
+        int i = flat == null ? -1 : indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V value = (V) flat[i + 1];
+        removeAt(i);
+        return value;
+    }
+
+    /* Removes the flat entry at key slot I by moving the last entry into its place */
+    private void removeAt(int i) {
+        int last = 2 * (flatSize - 1);
+        flat[i] = flat[last];
+        flat[i + 1] = flat[last + 1];
+        flat[last] = null;
+        flat[last + 1] = null;
+        flatSize -= 1;
+        if (flatSize == 0) {
+            flat = null;
+        }
+        modCount += 1;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    /* Walks the flat array, or the hash table's entries once promoted */
+    private abstract class AdaptiveIterator<E> implements Iterator<E> {
+        private final Iterator<Map.Entry<K, V>> tableEntries = table == null ? null : table.entrySet().iterator();
+        private int index; // Next key slot in flat
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return tableEntries != null ? tableEntries.hasNext() : index < 2 * flatSize;
+        }
+
+        Map.Entry<K, V> nextEntry() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (tableEntries != null) {
+                return tableEntries.next();
+            }
+            Map.Entry<K, V> entry = new FlatEntry(index);
+            index += 2;
+            return entry;
+        }
+    }
+
+    private class KeyIterator extends AdaptiveIterator<K> {
+        @Override
+        public K next() {
+            return nextEntry().getKey();
+        }
+    }
+
+    private class ValueIterator extends AdaptiveIterator<V> {
+        @Override
+        public V next() {
+            return nextEntry().getValue();
+        }
+    }
+
+    private class EntryIterator extends AdaptiveIterator<Map.Entry<K, V>> {
+        @Override
+        public Map.Entry<K, V> next() {
+            return nextEntry();
+        }
+    }
+
+    /* An entry that writes through to its flat slot while the key still lives there */
+    private class FlatEntry implements Map.Entry<K, V> {
+        private final K key;
+        private V value;
+        private final int index;
+
+        @SuppressWarnings("unchecked")
+        FlatEntry(int index) {
+            this.index = index;
+            this.key = (K) flat[index];
+            this.value = (V) flat[index + 1];
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V v) {
+            V old = value;
+            value = v;
+            if (table == null && flat != null && index < flat.length && flat[index] == key) {
+                flat[index + 1] = v;
+            } else {
+                put(key, v);
+            }
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /* Live views backed by the map */
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return AdaptiveMap.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return o != null && containsKey((K) o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (o == null || !containsKey((K) o)) {
+                return false;
+            }
+            AdaptiveMap.this.remove((K) o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            AdaptiveMap.this.clear();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return AdaptiveMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            AdaptiveMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return AdaptiveMap.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || e.getKey() == null) {
+                return false;
+            }
+            K key = (K) e.getKey();
+            return containsKey(key) && Objects.equals(get(key), e.getValue());
+        }
+
+        @Override
+        public void clear() {
+            AdaptiveMap.this.clear();
+        }
+    }
+}
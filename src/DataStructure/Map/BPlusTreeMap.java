@@ -0,0 +1,878 @@
+package DataStructure.Map;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ *  An ordered map backed by an in-memory B+tree.
+ *
+ *  Each node keeps its keys in one contiguous array and finds a key by binary search
+ *  within it, so a lookup touches about log_fanout(n) nodes instead of the log2(n)
+ *  nodes a binary tree touches. All entries live in the leaves, which are linked in
+ *  both directions so that iteration and range scans walk them sequentially.
+ *
+ *  Leaves hold up to fanout entries and internal nodes up to fanout children. Except
+ *  for the root, no node drops below half of that: deletion borrows from a sibling
+ *  when it can and merges with one otherwise. fromSorted() builds a tree from sorted
+ *  input in O(n) by packing full leaves and stacking the index levels on top, and
+ *  bulkLoad() merges a batch into the existing entries and rebuilds the same way,
+ *  unless the batch is small enough that putting it key by key is cheaper.
+ *
+ *  Null keys are not allowed.
+ */
+public class BPlusTreeMap<K extends Comparable<K>, V> implements Map61B<K, V> {
+    /* Default value */
+    private static final int DEFAULT_FANOUT = 64;
+    private static final int MIN_FANOUT = 4;
+
+    /* A node; KEYS[0, size) are sorted. Arrays have one spare slot for a pending split */
+    private abstract static class Node {
+        final Object[] keys;
+        int size; // Number of keys
+
+        Node(int capacity) {
+            keys = new Object[capacity];
+        }
+    }
+
+    /* A leaf holds SIZE entries */
+    private static final class Leaf extends Node {
+        final Object[] values;
+        Leaf prev;
+        Leaf next;
+
+        Leaf(int fanout) {
+            super(fanout + 1);
+            values = new Object[fanout + 1];
+        }
+    }
+
+    /* An internal node has SIZE separator keys and SIZE + 1 children. Keys in
+     * children[i] are < keys[i], and keys in children[i + 1] are >= keys[i]. */
+    private static final class Internal extends Node {
+        final Node[] children;
+
+        Internal(int fanout) {
+            super(fanout);
+            children = new Node[fanout + 1];
+        }
+    }
+
+    /* Instance Variables */
+    private final int fanout;
+    private final int minLeafSize;
+    private final int minInternalKeys;
+    private Node root;
+    private Leaf head; // Leftmost leaf
+    private int size;
+    private int modCount; // Structural modifications, for fail-fast iterators
+
+    /* Result of the last split: the separator and the new right sibling */
+    private Object splitKey;
+    private Node splitNode;
+    /* Value removed by the last remove(), and whether there was one */
+    private Object removedValue;
+    private boolean removed;
+
+    /** Constructors */
+    public BPlusTreeMap() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * BPlusTreeMap constructor.
+     *
+     * @param fanout maximum entries per leaf and children per internal node, at least 4
+     */
+    public BPlusTreeMap(int fanout) {
+        if (fanout < MIN_FANOUT) {
+            throw new IllegalArgumentException("Fanout must be at least " + MIN_FANOUT);
+        }
+        this.fanout = fanout;
+        this.minLeafSize = fanout / 2;
+        this.minInternalKeys = (fanout + 1) / 2 - 1;
+        this.root = null;
+        this.head = null;
+        this.size = 0;
+    }
+
+    /**
+     * Builds a map from KEYS and VALUES in O(n). KEYS must be strictly ascending.
+     *
+     * @param keys sorted keys
+     * @param values values, VALUES[i] belongs to KEYS[i]
+     * @param fanout maximum entries per leaf and children per internal node
+     */
+    public static <K extends Comparable<K>, V> BPlusTreeMap<K, V> fromSorted(K[] keys, V[] values, int fanout) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Got " + keys.length + " keys but " + values.length + " values");
+        }
+        BPlusTreeMap<K, V> map = new BPlusTreeMap<>(fanout);
+        List<Map.Entry<K, V>> entries = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            entries.add(Map.entry(keys[i], values[i]));
+        }
+        map.loadSorted(entries.iterator());
+        return map;
+    }
+
+    /**
+     * Puts every entry of ENTRIES, the last one winning for a repeated key. The batch is
+     * sorted (unless it already is), merged with the current entries, and the tree is
+     * rebuilt in one pass with packed leaves, in O(n + m log m) instead of m descents
+     * that each may split nodes. A batch of m entries with m log(n + m) < n + m is
+     * put() one by one instead.
+     */
+    @Override
+    public void bulkLoad(Stream<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        Map.Entry<K, V>[] batch = SortedBatch.toArray(entries);
+        if (SortedBatch.putsAreCheaper(size, batch.length)) {
+            for (Map.Entry<K, V> entry : batch) {
+                put(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        loadSorted(SortedBatch.merge(new EntryIterator(null, null), size, batch).iterator());
+    }
+
+    /**
+     * Copies every mapping of OTHER into this map, through bulkLoad() unless OTHER is
+     * small next to this map.
+     */
+    @Override
+    public void putAll(Map61B<? extends K, ? extends V> other) {
+        if (SortedBatch.putsAreCheaper(size, other.size())) {
+            Map61B.super.putAll(other);
+        } else {
+            bulkLoad(other.entrySet().stream());
+        }
+    }
+
+    /*
+     * Replaces the contents of this map with ENTRIES, which must be in strictly
+     * ascending key order. Leaves are packed full, except that the last two share
+     * their entries if the last would be underfull; index levels group their children
+     * as evenly as possible.
+     */
+    void loadSorted(Iterator<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        clear();
+        List<Node> level = new ArrayList<>();
+        List<Object> lowKeys = new ArrayList<>(); // Smallest key under each node of LEVEL
+        Leaf leaf = null;
+        K last = null;
+        while (entries.hasNext()) {
+            Map.Entry<? extends K, ? extends V> entry = entries.next();
+            K key = entry.getKey();
+            if (key == null) {
+                throw new IllegalArgumentException("Null keys are not allowed");
+            }
+            if (last != null && last.compareTo(key) >= 0) {
+                throw new IllegalArgumentException("Keys are not strictly ascending at " + key);
+            }
+            last = key;
+            if (leaf == null || leaf.size == fanout) {
+                Leaf next = new Leaf(fanout);
+                if (leaf != null) {
+                    leaf.next = next;
+                    next.prev = leaf;
+                }
+                leaf = next;
+                level.add(leaf);
+                lowKeys.add(key);
+            }
+            leaf.keys[leaf.size] = key;
+            leaf.values[leaf.size] = entry.getValue();
+            leaf.size += 1;
+            size += 1;
+        }
+        if (leaf == null) {
+            return;
+        }
+        if (leaf.prev != null && leaf.size < minLeafSize) {
+            Leaf prev = leaf.prev;
+            int move = minLeafSize - leaf.size;
+            System.arraycopy(leaf.keys, 0, leaf.keys, move, leaf.size);
+            System.arraycopy(leaf.values, 0, leaf.values, move, leaf.size);
+            System.arraycopy(prev.keys, prev.size - move, leaf.keys, 0, move);
+            System.arraycopy(prev.values, prev.size - move, leaf.values, 0, move);
+            Arrays.fill(prev.keys, prev.size - move, prev.size, null);
+            Arrays.fill(prev.values, prev.size - move, prev.size, null);
+            prev.size -= move;
+            leaf.size += move;
+            lowKeys.set(lowKeys.size() - 1, leaf.keys[0]);
+        }
+        head = (Leaf) level.get(0);
+        while (level.size() > 1) {
+            int groups = (level.size() + fanout - 1) / fanout;
+            List<Node> parents = new ArrayList<>(groups);
+            List<Object> parentLowKeys = new ArrayList<>(groups);
+            int start = 0;
+            for (int g = 0; g < groups; g++) {
+                int end = start + level.size() / groups + (g < level.size() % groups ? 1 : 0);
+                Internal parent = new Internal(fanout);
+                for (int i = start; i < end; i++) {
+                    parent.children[i - start] = level.get(i);
+                    if (i > start) {
+                        parent.keys[i - start - 1] = lowKeys.get(i);
+                    }
+                }
+                parent.size = end - start - 1;
+                parents.add(parent);
+                parentLowKeys.add(lowKeys.get(start));
+                start = end;
+            }
+            level = parents;
+            lowKeys = parentLowKeys;
+        }
+        root = level.get(0);
+        modCount += 1;
+    }
+
+    /* Index of KEY in NODE, or -(insertion point) - 1 */
+    private static int search(Node node, Object key) {
+        return Arrays.binarySearch(node.keys, 0, node.size, key);
+    }
+
+    /* Index of the child of NODE whose subtree may hold KEY */
+    private static int childIndex(Internal node, Object key) {
+        int i = search(node, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /* Returns the leaf whose key range covers KEY; the tree must not be empty */
+    private Leaf findLeaf(Object key) {
+        Node node = root;
+        while (node instanceof Internal internal) {
+            node = internal.children[childIndex(internal, key)];
+        }
+        return (Leaf) node;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (root == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return i >= 0 ? (V) leaf.values[i] : null;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        return root != null && search(findLeaf(key), key) >= 0;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (root == null) {
+            head = new Leaf(fanout);
+            root = head;
+        }
+        if (insert(root, key, value)) {
+            Internal newRoot = new Internal(fanout);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = splitNode;
+            newRoot.size = 1;
+            root = newRoot;
+            splitKey = null;
+            splitNode = null;
+        }
+    }
+
+    /* Inserts into the subtree at NODE; returns true if NODE split into splitKey/splitNode */
+    private boolean insert(Node node, Object key, Object value) {
+        if (node instanceof Leaf leaf) {
+            int i = search(leaf, key);
+            if (i >= 0) {
+                leaf.values[i] = value;
+                return false;
+            }
+            int pos = -i - 1;
+            System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.size - pos);
+            System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.size - pos);
+            leaf.keys[pos] = key;
+            leaf.values[pos] = value;
+            leaf.size += 1;
+            size += 1;
+            modCount += 1;
+            return leaf.size > fanout && splitLeaf(leaf);
+        }
+        Internal internal = (Internal) node;
+        int c = childIndex(internal, key);
+        if (!insert(internal.children[c], key, value)) {
+            return false;
+        }
+        System.arraycopy(internal.keys, c, internal.keys, c + 1, internal.size - c);
+        System.arraycopy(internal.children, c + 1, internal.children, c + 2, internal.size - c);
+        internal.keys[c] = splitKey;
+        internal.children[c + 1] = splitNode;
+        internal.size += 1;
+        return internal.size + 1 > fanout && splitInternal(internal);
+    }
+
+    private boolean splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf(fanout);
+        int keep = leaf.size / 2;
+        right.size = leaf.size - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.size);
+        System.arraycopy(leaf.values, keep, right.values, 0, right.size);
+        Arrays.fill(leaf.keys, keep, leaf.size, null);
+        Arrays.fill(leaf.values, keep, leaf.size, null);
+        leaf.size = keep;
+        right.next = leaf.next;
+        right.prev = leaf;
+        if (leaf.next != null) {
+            leaf.next.prev = right;
+        }
+        leaf.next = right;
+        splitKey = right.keys[0];
+        splitNode = right;
+        return true;
+    }
+
+    private boolean splitInternal(Internal node) {
+        Internal right = new Internal(fanout);
+        int mid = node.size / 2;
+        right.size = node.size - mid - 1;
+        System.arraycopy(node.keys, mid + 1, right.keys, 0, right.size);
+        System.arraycopy(node.children, mid + 1, right.children, 0, right.size + 1);
+        splitKey = node.keys[mid];
+        Arrays.fill(node.keys, mid, node.size, null);
+        Arrays.fill(node.children, mid + 1, node.size + 1, null);
+        node.size = mid;
+        splitNode = right;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (root == null) {
+            return null;
+        }
+        removed = false;
+        delete(root, key);
+        if (!removed) {
+            return null;
+        }
+        V value = (V) removedValue;
+        removedValue = null;
+        if (root instanceof Internal internal && internal.size == 0) {
+            root = internal.children[0];
+        } else if (root instanceof Leaf leaf && leaf.size == 0) {
+            root = null;
+            head = null;
+        }
+        return value;
+    }
+
+    /* Deletes KEY from the subtree at NODE, fixing underfull children on the way back */
+    private void delete(Node node, Object key) {
+        if (node instanceof Leaf leaf) {
+            int i = search(leaf, key);
+            if (i < 0) {
+                return;
+            }
+            removedValue = leaf.values[i];
+            removed = true;
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.size - i - 1);
+            System.arraycopy(leaf.values, i + 1, leaf.values, i, leaf.size - i - 1);
+            leaf.size -= 1;
+            leaf.keys[leaf.size] = null;
+            leaf.values[leaf.size] = null;
+            size -= 1;
+            modCount += 1;
+            return;
+        }
+        Internal internal = (Internal) node;
+        int c = childIndex(internal, key);
+        delete(internal.children[c], key);
+        if (removed) {
+            fixChild(internal, c);
+        }
+    }
+
+    private boolean underfull(Node node) {
+        return node.size < (node instanceof Leaf ? minLeafSize : minInternalKeys);
+    }
+
+    private boolean canLend(Node node) {
+        return node.size > (node instanceof Leaf ? minLeafSize : minInternalKeys);
+    }
+
+    /* Borrows into or merges PARENT.children[c] if it has become underfull */
+    private void fixChild(Internal parent, int c) {
+        Node child = parent.children[c];
+        if (!underfull(child)) {
+            return;
+        }
+        Node left = c > 0 ? parent.children[c - 1] : null;
+        Node right = c < parent.size ? parent.children[c + 1] : null;
+        if (left != null && canLend(left)) {
+            borrowFromLeft(parent, c, left, child);
+        } else if (right != null && canLend(right)) {
+            borrowFromRight(parent, c, child, right);
+        } else if (left != null) {
+            merge(parent, c - 1, left, child);
+        } else {
+            merge(parent, c, child, right);
+        }
+    }
+
+    private void borrowFromLeft(Internal parent, int c, Node left, Node child) {
+        System.arraycopy(child.keys, 0, child.keys, 1, child.size);
+        if (child instanceof Leaf leaf) {
+            Leaf from = (Leaf) left;
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.size);
+            leaf.keys[0] = from.keys[from.size - 1];
+            leaf.values[0] = from.values[from.size - 1];
+            from.values[from.size - 1] = null;
+            parent.keys[c - 1] = leaf.keys[0];
+        } else {
+            Internal to = (Internal) child;
+            Internal from = (Internal) left;
+            System.arraycopy(to.children, 0, to.children, 1, to.size + 1);
+            to.keys[0] = parent.keys[c - 1];
+            to.children[0] = from.children[from.size];
+            from.children[from.size] = null;
+            parent.keys[c - 1] = from.keys[from.size - 1];
+        }
+        left.keys[left.size - 1] = null;
+        left.size -= 1;
+        child.size += 1;
+    }
+
+    private void borrowFromRight(Internal parent, int c, Node child, Node right) {
+        if (child instanceof Leaf leaf) {
+            Leaf from = (Leaf) right;
+            leaf.keys[leaf.size] = from.keys[0];
+            leaf.values[leaf.size] = from.values[0];
+            System.arraycopy(from.values, 1, from.values, 0, from.size - 1);
+            from.values[from.size - 1] = null;
+            System.arraycopy(from.keys, 1, from.keys, 0, from.size - 1);
+            parent.keys[c] = from.keys[0];
+        } else {
+            Internal to = (Internal) child;
+            Internal from = (Internal) right;
+            to.keys[to.size] = parent.keys[c];
+            to.children[to.size + 1] = from.children[0];
+            parent.keys[c] = from.keys[0];
+            System.arraycopy(from.keys, 1, from.keys, 0, from.size - 1);
+            System.arraycopy(from.children, 1, from.children, 0, from.size);
+            from.children[from.size] = null;
+        }
+        right.keys[right.size - 1] = null;
+        right.size -= 1;
+        child.size += 1;
+    }
+
+    /* Merges RIGHT into LEFT and drops PARENT.keys[k] and PARENT.children[k + 1] */
+    private void merge(Internal parent, int k, Node left, Node right) {
+        if (left instanceof Leaf leaf) {
+            Leaf from = (Leaf) right;
+            System.arraycopy(from.keys, 0, leaf.keys, leaf.size, from.size);
+            System.arraycopy(from.values, 0, leaf.values, leaf.size, from.size);
+            leaf.size += from.size;
+            leaf.next = from.next;
+            if (from.next != null) {
+                from.next.prev = leaf;
+            }
+        } else {
+            Internal to = (Internal) left;
+            Internal from = (Internal) right;
+            to.keys[to.size] = parent.keys[k];
+            System.arraycopy(from.keys, 0, to.keys, to.size + 1, from.size);
+            System.arraycopy(from.children, 0, to.children, to.size + 1, from.size + 1);
+            to.size += 1 + from.size;
+        }
+        System.arraycopy(parent.keys, k + 1, parent.keys, k, parent.size - k - 1);
+        System.arraycopy(parent.children, k + 2, parent.children, k + 1, parent.size - k - 1);
+        parent.size -= 1;
+        parent.keys[parent.size] = null;
+        parent.children[parent.size + 1] = null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        head = null;
+        size = 0;
+        modCount += 1;
+    }
+
+    /** Returns the smallest key, or null if the map is empty. */
+    @SuppressWarnings("unchecked")
+    public K min() {
+        return head == null ? null : (K) head.keys[0];
+    }
+
+    /** Returns the largest key, or null if the map is empty. */
+    @SuppressWarnings("unchecked")
+    public K max() {
+        if (root == null) {
+            return null;
+        }
+        Node node = root;
+        while (node instanceof Internal internal) {
+            node = internal.children[internal.size];
+        }
+        return (K) node.keys[node.size - 1];
+    }
+
+    /** Returns the largest key less than or equal to KEY, or null if there is none. */
+    @SuppressWarnings("unchecked")
+    public K floor(K key) {
+        if (root == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        if (i >= 0) {
+            return (K) leaf.keys[i];
+        }
+        int pos = -i - 1;
+        if (pos > 0) {
+            return (K) leaf.keys[pos - 1];
+        }
+        return leaf.prev == null ? null : (K) leaf.prev.keys[leaf.prev.size - 1];
+    }
+
+    /** Returns the smallest key greater than or equal to KEY, or null if there is none. */
+    @SuppressWarnings("unchecked")
+    public K ceiling(K key) {
+        if (root == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        if (i >= 0) {
+            return (K) leaf.keys[i];
+        }
+        int pos = -i - 1;
+        if (pos < leaf.size) {
+            return (K) leaf.keys[pos];
+        }
+        return leaf.next == null ? null : (K) leaf.next.keys[0];
+    }
+
+    /**
+     * Returns the mappings whose keys lie between LO and HI, inclusive, in ascending
+     * order. The result is lazy: each iteration descends once to LO and then walks
+     * the linked leaves.
+     */
+    public Iterable<Map.Entry<K, V>> range(K lo, K hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        return () -> new EntryIterator(lo, hi);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return BPlusTreeMap.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return o != null && containsKey((K) o);
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator(null, null);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterator<V> iterator() {
+                return new LeafIterator<>(null, null) {
+                    @Override
+                    V at(Leaf leaf, int i) {
+                        return (V) leaf.values[i];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<K> iterator() {
+        return new LeafIterator<>(null, null) {
+            @Override
+            K at(Leaf leaf, int i) {
+                return (K) leaf.keys[i];
+            }
+        };
+    }
+
+    /* Walks the leaf chain from LO (or the first key) up to HI (or the last key) */
+    private abstract class LeafIterator<E> implements Iterator<E> {
+        private Leaf leaf;
+        private int index;
+        private final K hi;
+        private final int expectedModCount = modCount;
+
+        LeafIterator(K lo, K hi) {
+            this.hi = hi;
+            if (root == null) {
+                return;
+            }
+            if (lo == null) {
+                leaf = head;
+                index = 0;
+            } else {
+                leaf = findLeaf(lo);
+                int i = search(leaf, lo);
+                index = i >= 0 ? i : -i - 1;
+            }
+            skipExhaustedLeaf();
+        }
+
+        private void skipExhaustedLeaf() {
+            if (leaf != null && index >= leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        abstract E at(Leaf leaf, int i);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            return leaf != null && (hi == null || ((K) leaf.keys[index]).compareTo(hi) <= 0);
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E result = at(leaf, index);
+            index += 1;
+            skipExhaustedLeaf();
+            return result;
+        }
+    }
+
+    private class EntryIterator extends LeafIterator<Map.Entry<K, V>> {
+        EntryIterator(K lo, K hi) {
+            super(lo, hi);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Map.Entry<K, V> at(Leaf leaf, int i) {
+            return new LeafEntry(leaf, i, (K) leaf.keys[i]);
+        }
+    }
+
+    /* An entry that writes setValue() through to its slot while the tree is unchanged */
+    private class LeafEntry implements Map.Entry<K, V> {
+        private final Leaf leaf;
+        private final int index;
+        private final K key;
+
+        LeafEntry(Leaf leaf, int index, K key) {
+            this.leaf = leaf;
+            this.index = index;
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return leaf.keys[index] == key ? (V) leaf.values[index] : get(key);
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = getValue();
+            put(key, value);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    /** Compares BPlusTreeMap with BSTMap and java.util.TreeMap on random and sorted keys. */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] randomKeys = new Integer[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            randomKeys[i] = random.nextInt();
+        }
+        Integer[] sortedKeys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sortedKeys[i] = i;
+        }
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            boolean report = round == 2;
+            benchmark("TreeMap", randomKeys, sortedKeys, report, new Bench() {
+                final TreeMap<Integer, Integer> map = new TreeMap<>();
+                public void put(Integer k) { map.put(k, k); }
+                public Integer get(Integer k) { return map.get(k); }
+                public long scan() {
+                    long sum = 0;
+                    for (int k : map.keySet()) {
+                        sum += k;
+                    }
+                    return sum;
+                }
+                public void clear() { map.clear(); }
+            });
+            benchmark("BSTMap", randomKeys, sortedKeys, report, new Bench() {
+                final BSTMap<Integer, Integer> map = new BSTMap<>();
+                public void put(Integer k) { map.put(k, k); }
+                public Integer get(Integer k) { return map.get(k); }
+                public long scan() {
+                    long sum = 0;
+                    for (int k : map) {
+                        sum += k;
+                    }
+                    return sum;
+                }
+                public void clear() { map.clear(); }
+            });
+            benchmark("BPlusTreeMap", randomKeys, sortedKeys, report, new Bench() {
+                final BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>();
+                public void put(Integer k) { map.put(k, k); }
+                public Integer get(Integer k) { return map.get(k); }
+                public long scan() {
+                    long sum = 0;
+                    for (int k : map) {
+                        sum += k;
+                    }
+                    return sum;
+                }
+                public void clear() { map.clear(); }
+            });
+        }
+        long start = System.nanoTime();
+        BPlusTreeMap<Integer, Integer> loaded = fromSorted(sortedKeys, sortedKeys, DEFAULT_FANOUT);
+        System.out.printf("BPlusTreeMap.fromSorted of %d keys: %d ms%n", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /* The operations timed by main */
+    private interface Bench {
+        void put(Integer key);
+        Integer get(Integer key);
+        long scan();
+        void clear();
+    }
+
+    private static void benchmark(String name, Integer[] randomKeys, Integer[] sortedKeys, boolean report, Bench bench) {
+        long start = System.nanoTime();
+        for (Integer key : randomKeys) {
+            bench.put(key);
+        }
+        long putRandom = System.nanoTime() - start;
+        start = System.nanoTime();
+        long found = 0;
+        for (Integer key : randomKeys) {
+            found += bench.get(key) == null ? 0 : 1;
+        }
+        long getRandom = System.nanoTime() - start;
+        start = System.nanoTime();
+        long checksum = bench.scan();
+        long scan = System.nanoTime() - start;
+        bench.clear();
+        start = System.nanoTime();
+        for (Integer key : sortedKeys) {
+            bench.put(key);
+        }
+        long putSorted = System.nanoTime() - start;
+        bench.clear();
+        if (report) {
+            System.out.printf("%-13s put random %5d ms, get random %5d ms, full scan %4d ms, put sorted %5d ms (%d, %d)%n",
+                    name, putRandom / 1_000_000, getRandom / 1_000_000, scan / 1_000_000,
+                    putSorted / 1_000_000, found, checksum);
+        }
+    }
+}
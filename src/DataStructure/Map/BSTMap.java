@@ -1,31 +1,106 @@
 package DataStructure.Map;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.stream.Stream;
 
-public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
+/**
+ *  An ordered map backed by a left-leaning red-black tree.
+ *
+ *  Uses the rotations and color flips of DataStructure.RedBlackTree, so the height stays
+ *  below 2 lg(n + 1) whatever the insertion order. put(), get() and remove() are
+ *  iterative: they record the nodes they pass in a reusable path array and then
+ *  restore the red-black invariants bottom-up, exactly as the recursive versions
+ *  would on the way back out of the recursion.
+ *
+ *  Every node also stores the size of its subtree, kept up to date by the rotations and
+ *  the bottom-up pass, so rank(), select() and rangeCount() are O(log n) as well.
+ *
+ *  enableStats() turns on MapStats recording of search depths and latencies, and
+ *  stats() reports the current height, so a tree that is deeper than it should be
+ *  shows up in production. Without it, operations skip the bookkeeping entirely.
+ *
+ *  bulkLoad() sorts a batch, merges it with the current entries and rebuilds the whole
+ *  tree in linear time, the way RedBlackTree.fromSorted() does. A batch too small for
+ *  the rebuild to pay off is put() key by key instead.
+ */
+public class BSTMap<K extends Comparable<K>, V> implements OrderedMap61B<K, V> {
+    /* A left-leaning red-black tree of n < 2^31 nodes is at most 62 levels high */
+    private static final int MAX_HEIGHT = 64;
 
-    private class Node {
+    private class Node implements Map.Entry<K, V> {
         private K key;
         private V value;
+        private boolean isBlack;
+        private int count; // Nodes in the subtree rooted here
         private Node left;
         private Node right;
 
         private Node(K key, V value) {
             this.key = key;
             this.value = value;
+            this.isBlack = false;
+            this.count = 1;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V v) {
+            V old = value;
+            value = v;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
         }
     }
 
     private Node root;
     private int size;
-    private final Set<K> keySet;
+    private int modCount; // Structural modifications, for fail-fast iterators
+    private final Node[] path; // Nodes passed by the current put() or remove()
+    private final boolean[] wentLeft; // Whether the descent went left from path[i]
+    private MapStats stats; // Null unless enableStats() was called
 
+    @SuppressWarnings({"rawtypes", "unchecked"}) // It is safe
     public BSTMap() {
         this.root = null;
         this.size = 0;
-        this.keySet = new TreeSet<>();
+        this.modCount = 0;
+        this.path = new BSTMap.Node[MAX_HEIGHT];
+        this.wentLeft = new boolean[MAX_HEIGHT];
     }
     /**
      * Associates the specified value with the specified key in this map.
@@ -37,26 +112,58 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
      */
     @Override
     public void put(K key, V value) {
-        root = put(root, key, value);
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        MapStats s = stats;
+        if (s == null) {
+            insert(key, value);
+            return;
+        }
+        int probes = searchDepth(key);
+        long start = System.nanoTime();
+        insert(key, value);
+        s.recordOperation(MapStats.Operation.PUT, System.nanoTime() - start, probes);
     }
 
-    // Helper method to insert a key-value pair
-    private Node put(Node node, K key, V value) {
-        if (node == null) {
-            size += 1;
-            keySet.add(key);
-            return new Node(key, value);
+    private void insert(K key, V value) {
+        int depth = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                node.value = value;
+                return;
+            }
+            path[depth] = node;
+            wentLeft[depth] = cmp < 0;
+            depth += 1;
+            node = cmp < 0 ? node.left : node.right;
         }
+        size += 1;
+        modCount += 1;
+        root = rebalanceUp(new Node(key, value), depth);
+        root.isBlack = true;
+    }
 
-        int cmp = key.compareTo(node.key);
-        if (cmp < 0) {
-            node.left = put(node.left, key, value);
-        } else if (cmp > 0) {
-            node.right = put(node.right, key, value);
-        } else {
-            node.value = value;
+    /*
+     * Hangs CHILD under path[depth - 1], then balances every node on the path from the
+     * bottom up. Returns the new root.
+     */
+    private Node rebalanceUp(Node child, int depth) {
+        while (depth > 0) {
+            depth -= 1;
+            Node parent = path[depth];
+            path[depth] = null;
+            if (wentLeft[depth]) {
+                parent.left = child;
+            } else {
+                parent.right = child;
+            }
+            parent.count = 1 + count(parent.left) + count(parent.right);
+            child = balance(parent);
         }
-        return node;
+        return child;
     }
 
     /**
@@ -67,23 +174,79 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
      */
     @Override
     public V get(K key) {
-        Node node = getNode(root, key);
+        MapStats s = stats;
+        if (s == null) {
+            Node node = getNode(key);
+            return node == null ? null : node.value;
+        }
+        int probes = searchDepth(key);
+        long start = System.nanoTime();
+        Node node = getNode(key);
+        s.recordOperation(MapStats.Operation.GET, System.nanoTime() - start, probes);
         return node == null ? null : node.value;
     }
 
     // Helper method to get a node with a given key
-    private Node getNode(Node node, K key) {
-        if (node == null) {
-            return null;
+    private Node getNode(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
         }
-        int cmp = key.compareTo(node.key);
-        if (cmp < 0) {
-            return getNode(node.left, key);
-        } else if (cmp > 0 ) {
-            return getNode(node.right, key);
-        }else {
-            return node;
+        Node node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                return node;
+            }
         }
+        return null;
+    }
+
+    /* Number of nodes a search for KEY compares against */
+    private int searchDepth(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        int depth = 0;
+        Node node = root;
+        while (node != null) {
+            depth += 1;
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                break;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return depth;
+    }
+
+    /**
+     * Starts recording statistics on this map's operations; see MapStats. Until this
+     * is called, every operation skips the bookkeeping.
+     */
+    public void enableStats() {
+        if (stats == null) {
+            stats = new MapStats(this);
+        }
+    }
+
+    /**
+     * Returns this map's statistics, after refreshing the tree height. Takes linear time.
+     */
+    public MapStats stats() {
+        if (stats == null) {
+            throw new IllegalStateException("Statistics are not enabled; call enableStats() first");
+        }
+        stats.setHeight(height(root));
+        return stats;
+    }
+
+    /* Number of nodes on the longest path down from NODE */
+    private int height(Node node) {
+        return node == null ? 0 : 1 + Math.max(height(node.left), height(node.right));
     }
 
     /**
@@ -93,7 +256,7 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
      */
     @Override
     public boolean containsKey(K key) {
-        return getNode(root, key) != null;
+        return getNode(key) != null;
     }
 
     /**
@@ -111,16 +274,122 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
     public void clear() {
         root = null;
         size = 0;
-        keySet.clear();
+        modCount += 1;
+    }
+
+    /**
+     * Copies every mapping of OTHER into this map. Unless OTHER is small next to this
+     * map, rebuilding with bulkLoad() is cheaper than one descent per key.
+     *
+     * @param other
+     */
+    @Override
+    public void putAll(Map61B<? extends K, ? extends V> other) {
+        if (!SortedBatch.putsAreCheaper(size, other.size())) {
+            bulkLoad(other.entrySet().stream());
+        } else {
+            OrderedMap61B.super.putAll(other);
+        }
     }
 
     /**
-     * Returns a Set view of the keys contained in this map. Not required for Lab 7.
-     * If you don't implement this, throw an UnsupportedOperationException.
+     * Puts every entry of ENTRIES, the last one winning for a repeated key. The batch is
+     * sorted (unless it already is) and merged with the current entries, and the tree
+     * is rebuilt from the merged run in O(n + m log m). A batch of m entries with
+     * m log(n + m) < n + m is put() one by one, in O(m log(n + m)).
+     *
+     * @param entries
+     */
+    @Override
+    public void bulkLoad(Stream<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        Map.Entry<K, V>[] batch = SortedBatch.toArray(entries);
+        if (SortedBatch.putsAreCheaper(size, batch.length)) {
+            for (Map.Entry<K, V> entry : batch) {
+                put(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        List<Map.Entry<K, V>> merged = SortedBatch.merge(new EntryIterator(), size, batch);
+        int n = merged.size();
+        // The lowest 2-3 tree height whose capacity, 3^h - 1 keys, holds all N entries
+        int height = 0;
+        long capacity = 0;
+        while (capacity < n) {
+            height += 1;
+            capacity = capacity * 3 + 2;
+        }
+        root = build(merged, 0, n, height);
+        size = n;
+        modCount += 1;
+    }
+
+    /*
+     * Builds a 2-3 tree of exactly HEIGHT levels from ENTRIES[LO, HI), encoded as a
+     * left-leaning red-black tree with a black root: a 2-node while the remaining
+     * entries fit under two subtrees, a 3-node (a black node with a red left child)
+     * otherwise. Same layout as RedBlackTree.build(), plus subtree counts.
+     */
+    private Node build(List<Map.Entry<K, V>> entries, int lo, int hi, int height) {
+        if (height == 0) {
+            return null;
+        }
+        int n = hi - lo;
+        long childCapacity = 0; // 3^(height - 1) - 1
+        for (int i = 1; i < height; i++) {
+            childCapacity = childCapacity * 3 + 2;
+        }
+        if (n - 1 <= 2 * childCapacity) {
+            int mid = lo + (n - 1) / 2;
+            Node node = newNode(entries.get(mid), true);
+            node.left = build(entries, lo, mid, height - 1);
+            node.right = build(entries, mid + 1, hi, height - 1);
+            node.count = n;
+            return node;
+        }
+        int third = (n - 2) / 3;
+        int extra = (n - 2) % 3;
+        int first = lo + third + (extra > 0 ? 1 : 0); // Index of the smaller key
+        int second = first + 1 + third + (extra > 1 ? 1 : 0); // Index of the larger key
+        Node red = newNode(entries.get(first), false);
+        red.left = build(entries, lo, first, height - 1);
+        red.right = build(entries, first + 1, second, height - 1);
+        red.count = second - lo;
+        Node node = newNode(entries.get(second), true);
+        node.left = red;
+        node.right = build(entries, second + 1, hi, height - 1);
+        node.count = n;
+        return node;
+    }
+
+    private Node newNode(Map.Entry<K, V> entry, boolean isBlack) {
+        Node node = new Node(entry.getKey(), entry.getValue());
+        node.isBlack = isBlack;
+        return node;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map, in ascending order.
+     * The view is computed from the tree itself rather than kept on the side.
      */
     @Override
     public Set<K> keySet() {
-        return keySet;
+        return new KeySet();
+    }
+
+    /**
+     * Returns a Set view of the mappings contained in this map, in ascending key order.
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Returns a Collection view of the values contained in this map, in ascending key order.
+     */
+    @Override
+    public Collection<V> values() {
+        return new Values();
     }
 
     /**
@@ -133,49 +402,287 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
      */
     @Override
     public V remove(K key) {
-        Node node = getNode(root, key);
+        MapStats s = stats;
+        if (s == null) {
+            return delete(key);
+        }
+        int probes = searchDepth(key);
+        long start = System.nanoTime();
+        V value = delete(key);
+        s.recordOperation(MapStats.Operation.REMOVE, System.nanoTime() - start, probes);
+        return value;
+    }
+
+    private V delete(K key) {
+        Node node = getNode(key);
         if (node == null) {
             return null;
         }
-        root = removeNode(root, key);
+        V value = node.value; // deleteNode may overwrite node with its successor
+        deleteNode(key);
         size -= 1;
-        keySet.remove(key);
-        return node.value;
+        modCount += 1;
+        return value;
     }
 
-    // Helper method to remove a node with a given key
-    private Node removeNode(Node node, K key) {
-        if (node == null) {
-            return null;
+    /*
+     * Top-down left-leaning red-black deletion of KEY, which must be present. On the way
+     * down, moveRedLeft and moveRedRight make sure the node we step into is not a
+     * 2-node, so the node finally unlinked is a red leaf. A node with two children is
+     * replaced by its successor, which is then deleted from the right subtree the same
+     * way as deleteMin.
+     */
+    private void deleteNode(K key) {
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.isBlack = false;
         }
-        int cmp = key.compareTo(node.key);
-        if (cmp < 0) {
-            node.left = removeNode(node.left, key);
-        } else if (cmp > 0) {
-            node.right = removeNode(node.right, key);
-        } else {
-            if (node.left == null) {
-                return node.right;
-            } else if (node.right == null) {
-                return node.left;
+        int depth = 0;
+        Node node = root;
+        Node target = null; // Set once KEY is found and we are looking for its successor
+        while (true) {
+            if (target != null) {
+                if (node.left == null) {
+                    target.key = node.key;
+                    target.value = node.value;
+                    break;
+                }
+                if (!isRed(node.left) && !isRed(node.left.left)) {
+                    node = moveRedLeft(node);
+                }
+                path[depth] = node;
+                wentLeft[depth] = true;
+            } else if (key.compareTo(node.key) < 0) {
+                if (!isRed(node.left) && !isRed(node.left.left)) {
+                    node = moveRedLeft(node);
+                }
+                path[depth] = node;
+                wentLeft[depth] = true;
             } else {
-                Node minNode = findMin(node.right);
-                node.key = minNode.key;
-                node.value = minNode.value;
-                node.right = removeNode(node.right, key);
+                if (isRed(node.left)) {
+                    node = rotateRight(node);
+                }
+                if (key.compareTo(node.key) == 0 && node.right == null) {
+                    break;
+                }
+                if (!isRed(node.right) && !isRed(node.right.left)) {
+                    node = moveRedRight(node);
+                }
+                if (key.compareTo(node.key) == 0) {
+                    target = node;
+                }
+                path[depth] = node;
+                wentLeft[depth] = false;
             }
+            node = wentLeft[depth] ? node.left : node.right;
+            depth += 1;
+        }
+        root = rebalanceUp(null, depth);
+        if (root != null) {
+            root.isBlack = true;
+        }
+    }
+
+    /* Left-leaning red-black tree operations, as in DataStructure.RedBlackTree */
+
+    private boolean isRed(Node node) {
+        return node != null && !node.isBlack;
+    }
+
+    private int count(Node node) {
+        return node == null ? 0 : node.count;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node rightNode = node.right;
+        boolean nodeColor = node.isBlack;
+        node.isBlack = rightNode.isBlack;
+        rightNode.isBlack = nodeColor;
+        node.right = rightNode.left;
+        rightNode.left = node;
+        rightNode.count = node.count;
+        node.count = 1 + count(node.left) + count(node.right);
+        return rightNode;
+    }
+
+    private Node rotateRight(Node node) {
+        Node leftNode = node.left;
+        boolean nodeColor = node.isBlack;
+        node.isBlack = leftNode.isBlack;
+        leftNode.isBlack = nodeColor;
+        node.left = leftNode.right;
+        leftNode.right = node;
+        leftNode.count = node.count;
+        node.count = 1 + count(node.left) + count(node.right);
+        return leftNode;
+    }
+
+    /* Inverts the colors of NODE and both of its children */
+    private void flipColors(Node node) {
+        node.isBlack = !node.isBlack;
+        node.left.isBlack = !node.left.isBlack;
+        node.right.isBlack = !node.right.isBlack;
+    }
+
+    /* Restores the left-leaning invariants at NODE */
+    private Node balance(Node node) {
+        if (isRed(node.right) && !isRed(node.left)) {
+            node = rotateLeft(node);
+        }
+        if (isRed(node.left) && isRed(node.left.left)) {
+            node = rotateRight(node);
+        }
+        if (isRed(node.left) && isRed(node.right)) {
+            flipColors(node);
         }
         return node;
     }
 
-    // Helper method to find the minimum node in the right subtree
-    private Node findMin(Node node) {
-        while (node.left != null) {
-            node= node.left;
+    private Node moveRedLeft(Node node) {
+        flipColors(node);
+        if (isRed(node.right.left)) {
+            node.right = rotateRight(node.right);
+            node = rotateLeft(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    private Node moveRedRight(Node node) {
+        flipColors(node);
+        if (isRed(node.left.left)) {
+            node = rotateRight(node);
+            flipColors(node);
         }
         return node;
     }
 
+    @Override
+    public K min() {
+        if (root == null) {
+            return null;
+        }
+        Node node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.key;
+    }
+
+    @Override
+    public K max() {
+        if (root == null) {
+            return null;
+        }
+        Node node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.key;
+    }
+
+    @Override
+    public K floor(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        K best = null;
+        Node node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return node.key;
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                best = node.key;
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public K ceiling(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        K best = null;
+        Node node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return node.key;
+            }
+            if (cmp > 0) {
+                node = node.right;
+            } else {
+                best = node.key;
+                node = node.left;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int rank(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += 1 + count(node.left);
+                node = node.right;
+            } else {
+                return rank + count(node.left);
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public K select(int k) {
+        if (k < 0 || k >= size) {
+            throw new IllegalArgumentException("Rank " + k + " out of range for size " + size);
+        }
+        Node node = root;
+        while (true) {
+            int leftCount = count(node.left);
+            if (k < leftCount) {
+                node = node.left;
+            } else if (k > leftCount) {
+                k -= leftCount + 1;
+                node = node.right;
+            } else {
+                return node.key;
+            }
+        }
+    }
+
+    @Override
+    public int rangeCount(K lo, K hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        }
+        return rank(hi) - rank(lo) + (containsKey(hi) ? 1 : 0);
+    }
+
+    @Override
+    public Iterable<Map.Entry<K, V>> range(K lo, K hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        return () -> new EntryIterator(lo, hi);
+    }
+
     /**
      * Returns an iterator over elements of type {@code T}.
      *
@@ -183,6 +690,165 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
      */
     @Override
     public Iterator<K> iterator() {
-        return keySet.iterator();
+        return new KeyIterator();
+    }
+
+    /*
+     * In-order traversal driven by an explicit stack of left spines, optionally limited
+     * to the keys between LO and HI; holds O(log n) nodes at a time
+     */
+    private abstract class TreeIterator<E> implements Iterator<E> {
+        private final Deque<Node> stack = new ArrayDeque<>();
+        private final int expectedModCount = modCount;
+        private final K hi; // Inclusive upper bound, or null
+
+        TreeIterator() {
+            this(null, null);
+        }
+
+        TreeIterator(K lo, K hi) {
+            this.hi = hi;
+            // Push the left spine, skipping the subtrees that lie entirely below LO
+            Node node = root;
+            while (node != null) {
+                if (lo != null && node.key.compareTo(lo) < 0) {
+                    node = node.right;
+                } else {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+        }
+
+        private void pushLeft(Node node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && (hi == null || stack.peek().key.compareTo(hi) <= 0);
+        }
+
+        Node nextNode() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node node = stack.pop();
+            pushLeft(node.right);
+            return node;
+        }
+    }
+
+    private class KeyIterator extends TreeIterator<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private class ValueIterator extends TreeIterator<V> {
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    private class EntryIterator extends TreeIterator<Map.Entry<K, V>> {
+        EntryIterator() {
+            super();
+        }
+
+        EntryIterator(K lo, K hi) {
+            super(lo, hi);
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            return nextNode();
+        }
+    }
+
+    /* Live views computed from the tree */
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return o != null && containsKey((K) o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            BSTMap.this.remove((K) o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            BSTMap.this.clear();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            BSTMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || e.getKey() == null) {
+                return false;
+            }
+            Node node = getNode((K) e.getKey());
+            return node != null && Objects.equals(node.value, e.getValue());
+        }
+
+        @Override
+        public void clear() {
+            BSTMap.this.clear();
+        }
     }
 }
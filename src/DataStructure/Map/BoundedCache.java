@@ -0,0 +1,599 @@
+package DataStructure.Map;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ *  A cache with a bounded number of entries and/or a bounded total weight.
+ *
+ *  Entries are indexed by a MyHashMap and also threaded onto intrusive doubly-linked
+ *  lists with sentinels (the LinkedListDeque61B design), so every policy runs in O(1):
+ *   - LRU evicts the least recently used entry.
+ *   - LFU keeps a list of frequency buckets and evicts the least recently used entry
+ *     of the lowest frequency.
+ *   - W_TINY_LFU puts new entries in a small LRU window (1% of capacity, counted both
+ *     in entries and in weight, so either bound alone sizes the regions). Entries
+ *     leaving the window must beat the main region's victim on the frequency estimate
+ *     of a count-min sketch to be admitted. The main region is a segmented LRU with
+ *     a probation and a protected segment.
+ *
+ *  All operations are synchronized on the cache. get(key, loader) runs the loader
+ *  outside the lock, and concurrent misses on the same key share a single load.
+ *  Null keys and values are not allowed.
+ */
+public class BoundedCache<K, V> {
+    /** Eviction policy of a BoundedCache. */
+    public enum Policy { LRU, LFU, W_TINY_LFU }
+
+    /** A snapshot of the cache's counters. */
+    public record Stats(long hitCount, long missCount, long loadSuccessCount,
+                        long loadFailureCount, long evictionCount, long evictionWeight) {
+        /** Returns hits / requests, or 1.0 if there were no requests. */
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+    }
+
+    /* W-TinyLFU region sizes, as fractions of both the maximum size and the maximum weight */
+    private static final double WINDOW_FRACTION = 0.01;
+    private static final double PROTECTED_FRACTION = 0.8;
+
+    /* Regions a node can be in */
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    /* Instance Variables */
+    private final Policy policy;
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final MyHashMap<K, CacheNode> index;
+    private final MyHashMap<K, CompletableFuture<V>> loading;
+
+    private long totalWeight;
+
+    /* LRU uses main, LFU uses buckets, W-TinyLFU uses window, probation and protectedList */
+    private final AccessList main = new AccessList();
+    private final FrequencyBucket buckets;
+    private final AccessList window = new AccessList();
+    private final AccessList probation = new AccessList();
+    private final AccessList protectedList = new AccessList();
+    private final FrequencySketch sketch;
+    private final long windowMaximumSize;
+    private final long windowMaximumWeight;
+    private final long protectedMaximumSize;
+    private final long protectedMaximumWeight;
+
+    private long hitCount;
+    private long missCount;
+    private long loadSuccessCount;
+    private long loadFailureCount;
+    private long evictionCount;
+    private long evictionWeight;
+
+    /** Constructors */
+    public BoundedCache(long maximumSize) {
+        this(maximumSize, Policy.LRU);
+    }
+
+    public BoundedCache(long maximumSize, Policy policy) {
+        this(maximumSize, maximumSize, (k, v) -> 1, policy);
+    }
+
+    /**
+     * BoundedCache constructor that bounds both the entry count and the total weight.
+     *
+     * @param maximumSize maximum number of entries
+     * @param maximumWeight maximum sum of weigher(key, value) over all entries
+     * @param weigher gives the non-negative weight of an entry
+     * @param policy eviction policy
+     */
+    public BoundedCache(long maximumSize, long maximumWeight,
+                        ToIntBiFunction<? super K, ? super V> weigher, Policy policy) {
+        if (maximumSize < 0 || maximumWeight < 0) {
+            throw new IllegalArgumentException("Maximums must be non-negative");
+        }
+        if (weigher == null || policy == null) {
+            throw new IllegalArgumentException("Null weigher or policy");
+        }
+        this.policy = policy;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.index = new MyHashMap<>();
+        this.loading = new MyHashMap<>();
+        this.buckets = new FrequencyBucket(0);
+        buckets.prev = buckets;
+        buckets.next = buckets;
+        long capacity = Math.min(maximumSize, maximumWeight);
+        this.sketch = policy == Policy.W_TINY_LFU ? new FrequencySketch(capacity) : null;
+        this.windowMaximumSize = Math.max(1, (long) (maximumSize * WINDOW_FRACTION));
+        this.windowMaximumWeight = Math.max(1, (long) (maximumWeight * WINDOW_FRACTION));
+        this.protectedMaximumSize = (long) ((maximumSize - windowMaximumSize) * PROTECTED_FRACTION);
+        this.protectedMaximumWeight = (long) ((maximumWeight - windowMaximumWeight) * PROTECTED_FRACTION);
+    }
+
+    /** Returns the value cached for KEY, or null. Counts as an access of KEY. */
+    public synchronized V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        CacheNode node = index.get(key);
+        if (node == null) {
+            missCount += 1;
+            return null;
+        }
+        hitCount += 1;
+        onAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Returns the value cached for KEY, computing it with LOADER on a miss. Threads that
+     * miss on a key that is already being loaded wait for that load instead of
+     * starting their own. A null result is returned but not cached, and an exception
+     * thrown by LOADER is rethrown to every waiting caller.
+     *
+     * @param key the key to look up
+     * @param loader computes the value of KEY; called without holding the cache lock
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (loader == null) {
+            throw new IllegalArgumentException("Null loader");
+        }
+        CompletableFuture<V> future;
+        boolean owner = false;
+        synchronized (this) {
+            V value = get(key);
+            if (value != null) {
+                return value;
+            }
+            future = loading.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                loading.put(key, future);
+                owner = true;
+            }
+        }
+        return owner ? load(key, loader, future) : await(future);
+    }
+
+    /* Runs LOADER for KEY and publishes the result through FUTURE */
+    private V load(K key, Function<? super K, ? extends V> loader, CompletableFuture<V> future) {
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loading.remove(key);
+                loadFailureCount += 1;
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            loading.remove(key);
+            loadSuccessCount += 1;
+            if (value != null) {
+                CacheNode existing = index.get(key);
+                if (existing != null) {
+                    value = existing.value; // Someone put() the key while we were loading
+                } else {
+                    insert(key, value);
+                }
+            }
+        }
+        future.complete(value);
+        return value;
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Returns whether KEY is cached, without counting as an access. */
+    public synchronized boolean containsKey(K key) {
+        return index.containsKey(key);
+    }
+
+    /** Caches VALUE under KEY, evicting other entries if the cache is over its bounds. */
+    public synchronized void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Null keys and values are not allowed");
+        }
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        CacheNode node = index.get(key);
+        if (node == null) {
+            insert(key, value);
+            return;
+        }
+        int weight = weigh(key, value);
+        node.list.weight += weight - node.weight;
+        totalWeight += weight - node.weight;
+        node.value = value;
+        node.weight = weight;
+        onAccess(node);
+        evict();
+    }
+
+    /** Removes KEY from the cache and returns its value, or null. */
+    public synchronized V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        CacheNode node = index.remove(key);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        return node.value;
+    }
+
+    /** Removes every entry. Statistics are kept. */
+    public synchronized void clear() {
+        index.clear();
+        main.clear();
+        window.clear();
+        probation.clear();
+        protectedList.clear();
+        buckets.prev = buckets;
+        buckets.next = buckets;
+        totalWeight = 0;
+    }
+
+    /** Returns the number of cached entries. */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /** Returns the total weight of the cached entries. */
+    public synchronized long weightedSize() {
+        return totalWeight;
+    }
+
+    /** Returns the eviction policy. */
+    public Policy policy() {
+        return policy;
+    }
+
+    /** Returns a snapshot of the hit, miss, load and eviction counters. */
+    public synchronized Stats stats() {
+        return new Stats(hitCount, missCount, loadSuccessCount, loadFailureCount,
+                evictionCount, evictionWeight);
+    }
+
+    private int weigh(K key, V value) {
+        int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight " + weight + " for key " + key);
+        }
+        return weight;
+    }
+
+    private void insert(K key, V value) {
+        CacheNode node = new CacheNode(key, value, weigh(key, value));
+        index.put(key, node);
+        totalWeight += node.weight;
+        switch (policy) {
+            case LRU -> main.addLast(node);
+            case LFU -> addToBucket(node, buckets, 1);
+            case W_TINY_LFU -> {
+                node.region = WINDOW;
+                window.addLast(node);
+            }
+        }
+        evict();
+    }
+
+    /* Records a hit on NODE in the structures of the current policy */
+    private void onAccess(CacheNode node) {
+        switch (policy) {
+            case LRU -> main.moveToLast(node);
+            case LFU -> {
+                FrequencyBucket bucket = node.bucket;
+                bucket.nodes.remove(node);
+                addToBucket(node, bucket, bucket.frequency + 1);
+                if (bucket.nodes.isEmpty()) {
+                    removeBucket(bucket);
+                }
+            }
+            case W_TINY_LFU -> {
+                if (node.region == WINDOW) {
+                    window.moveToLast(node);
+                } else if (node.region == PROTECTED) {
+                    protectedList.moveToLast(node);
+                } else {
+                    // Promote from probation, demoting protected entries that no longer fit
+                    probation.remove(node);
+                    node.region = PROTECTED;
+                    protectedList.addLast(node);
+                    while (protectedOverflows() && protectedList.first() != node) {
+                        CacheNode demoted = protectedList.first();
+                        protectedList.remove(demoted);
+                        demoted.region = PROBATION;
+                        probation.addLast(demoted);
+                    }
+                }
+            }
+        }
+    }
+
+    /* Removes NODE from whichever list holds it; the caller updates the index */
+    private void unlink(CacheNode node) {
+        totalWeight -= node.weight;
+        if (policy == Policy.LFU) {
+            FrequencyBucket bucket = node.bucket;
+            bucket.nodes.remove(node);
+            if (bucket.nodes.isEmpty()) {
+                removeBucket(bucket);
+            }
+        } else {
+            node.list.remove(node);
+        }
+    }
+
+    private boolean overBounds() {
+        return index.size() > maximumSize || totalWeight > maximumWeight;
+    }
+
+    /* W-TinyLFU: whether a region is over its share of either bound */
+    private boolean windowOverflows() {
+        return window.size > windowMaximumSize || window.weight > windowMaximumWeight;
+    }
+
+    private boolean mainOverflows() {
+        return probation.size + protectedList.size > maximumSize - windowMaximumSize
+                || probation.weight + protectedList.weight > maximumWeight - windowMaximumWeight;
+    }
+
+    private boolean protectedOverflows() {
+        return protectedList.size > protectedMaximumSize || protectedList.weight > protectedMaximumWeight;
+    }
+
+    private void evictNode(CacheNode node) {
+        index.remove(node.key);
+        unlink(node);
+        evictionCount += 1;
+        evictionWeight += node.weight;
+    }
+
+    /* Evicts entries until the cache is within its bounds */
+    private void evict() {
+        if (policy == Policy.W_TINY_LFU) {
+            evictWindow();
+        }
+        while (overBounds()) {
+            evictNode(victim());
+        }
+    }
+
+    /* The entry the current policy would evict next */
+    private CacheNode victim() {
+        switch (policy) {
+            case LRU:
+                return main.first();
+            case LFU:
+                return buckets.next.nodes.first();
+            default:
+                if (!probation.isEmpty()) {
+                    return probation.first();
+                }
+                return protectedList.isEmpty() ? window.first() : protectedList.first();
+        }
+    }
+
+    /*
+     * Moves entries that overflow the window into the main region. While the main
+     * region is over its share, each such candidate duels the main region's victim and
+     * the one with the lower sketch frequency is evicted.
+     */
+    private void evictWindow() {
+        while (windowOverflows() && !window.isEmpty()) {
+            CacheNode candidate = window.first();
+            window.remove(candidate);
+            candidate.region = PROBATION;
+            probation.addLast(candidate);
+            while (mainOverflows()) {
+                CacheNode victim = probation.first() != candidate ? probation.first()
+                        : !protectedList.isEmpty() ? protectedList.first() : null;
+                if (victim == null) {
+                    break;
+                }
+                if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                    evictNode(victim);
+                } else {
+                    evictNode(candidate);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void addToBucket(CacheNode node, FrequencyBucket after, long frequency) {
+        FrequencyBucket bucket = after.next;
+        if (bucket == buckets || bucket.frequency != frequency) {
+            bucket = new FrequencyBucket(frequency);
+            bucket.prev = after;
+            bucket.next = after.next;
+            after.next.prev = bucket;
+            after.next = bucket;
+        }
+        bucket.nodes.addLast(node);
+        node.bucket = bucket;
+    }
+
+    private void removeBucket(FrequencyBucket bucket) {
+        bucket.prev.next = bucket.next;
+        bucket.next.prev = bucket.prev;
+    }
+
+    /* A cached entry, linked into one AccessList */
+    private class CacheNode {
+        final K key;
+        V value;
+        int weight;
+        int region;
+        AccessList list;
+        FrequencyBucket bucket; // LFU only
+        CacheNode prev;
+        CacheNode next;
+
+        CacheNode(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /* An intrusive doubly-linked list with a sentinel, ordered from least to most recent */
+    private class AccessList {
+        private final CacheNode sentinel = new CacheNode(null, null, 0);
+        int size;
+        long weight;
+
+        AccessList() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        CacheNode first() {
+            return sentinel.next;
+        }
+
+        void addLast(CacheNode node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+            node.list = this;
+            size += 1;
+            weight += node.weight;
+        }
+
+        void remove(CacheNode node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            node.list = null;
+            size -= 1;
+            weight -= node.weight;
+        }
+
+        void moveToLast(CacheNode node) {
+            remove(node);
+            addLast(node);
+        }
+
+        void clear() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            size = 0;
+            weight = 0;
+        }
+    }
+
+    /* All LFU entries with the same access count; buckets form a list in frequency order */
+    private class FrequencyBucket {
+        final long frequency;
+        final AccessList nodes = new AccessList();
+        FrequencyBucket prev;
+        FrequencyBucket next;
+
+        FrequencyBucket(long frequency) {
+            this.frequency = frequency;
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters that estimates how often keys were seen.
+     *
+     * Each key maps to one counter in each of four rows, and its estimate is the minimum
+     * of the four. All counters are halved once the number of increments reaches ten
+     * times the table width, so the sketch forgets old popularity.
+     */
+    private static class FrequencySketch {
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table; // 16 counters per long
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(long capacity) {
+            int width = IntIntMap.tableSizeFor((int) Math.max(16, Math.min(capacity, 1 << 26)));
+            this.table = new long[width];
+            this.tableMask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        private static int spread(Object key) {
+            return IntIntMap.mix(key.hashCode());
+        }
+
+        private int indexOf(int h, int row) {
+            long hash = (h + SEEDS[row]) * SEEDS[row];
+            hash += hash >>> 32;
+            return (int) hash & tableMask;
+        }
+
+        /* Bit offset of ROW's counter within its long */
+        private static int shiftOf(int h, int row) {
+            return ((h >>> (row << 3)) & 15) << 2;
+        }
+
+        int frequency(Object key) {
+            int h = spread(key);
+            int frequency = 15;
+            for (int row = 0; row < 4; row++) {
+                int count = (int) ((table[indexOf(h, row)] >>> shiftOf(h, row)) & 15);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+            int h = spread(key);
+            boolean added = false;
+            for (int row = 0; row < 4; row++) {
+                int i = indexOf(h, row);
+                int shift = shiftOf(h, row);
+                if (((table[i] >>> shift) & 15) != 15) {
+                    table[i] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+    }
+}
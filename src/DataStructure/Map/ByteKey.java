@@ -0,0 +1,57 @@
+package DataStructure.Map;
+
+import java.util.Arrays;
+
+/**
+ *  An immutable byte-string key for OffHeapByteMap.
+ *
+ *  Wraps the given array without copying it, so callers must not modify the array
+ *  after handing it over. The hash code is computed once, up front.
+ */
+public final class ByteKey {
+    private final byte[] bytes;
+    private final int hash;
+
+    private ByteKey(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = Arrays.hashCode(bytes);
+    }
+
+    /** Returns a key wrapping BYTES. */
+    public static ByteKey of(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        return new ByteKey(bytes);
+    }
+
+    /** Returns the number of bytes in this key. */
+    public int length() {
+        return bytes.length;
+    }
+
+    /** Returns a copy of the bytes of this key. */
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    /* The wrapped array itself, for code in this package that only reads it */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ByteKey other && hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteKey" + Arrays.toString(bytes);
+    }
+}
@@ -0,0 +1,59 @@
+package DataStructure.Map;
+
+import java.nio.ByteBuffer;
+
+/**
+ *  A byte-string value for OffHeapByteMap.
+ *
+ *  A ByteValue is a read-only window onto bytes that may live on the heap or in
+ *  off-heap memory. Values returned by OffHeapByteMap.get() are zero-copy views of
+ *  the map's storage: they are only valid until the mapping is next overwritten or
+ *  removed, so call toByteArray() to keep a value longer than that.
+ */
+public final class ByteValue {
+    private final ByteBuffer buffer; // Read-only, position 0, limit = length
+
+    ByteValue(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /** Returns a value wrapping BYTES without copying them. */
+    public static ByteValue of(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+        return new ByteValue(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    /** Returns the number of bytes in this value. */
+    public int length() {
+        return buffer.limit();
+    }
+
+    /** Returns a read-only buffer over the bytes of this value, positioned at 0. */
+    public ByteBuffer buffer() {
+        return buffer.duplicate();
+    }
+
+    /** Copies the bytes of this value onto the heap. */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.get(0, bytes);
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ByteValue other && buffer.equals(other.buffer);
+    }
+
+    @Override
+    public int hashCode() {
+        return buffer.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ByteValue[" + length() + " bytes]";
+    }
+}
@@ -0,0 +1,831 @@
+package DataStructure.Map;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ *  A thread-safe hash table-backed Map implementation.
+ *
+ *  The layout follows MyHashMap: an array of buckets, each a chain of key/value nodes.
+ *  The differences are all about sharing the table between threads:
+ *   - An empty bucket is filled with a single compare-and-set, without locking.
+ *   - Updates to a non-empty bucket take one of a fixed set of striped locks, chosen by
+ *     bucket index, and re-check the bucket head once the lock is held.
+ *   - get() never locks. Chains are only ever relinked, values are volatile, and
+ *     resizing copies nodes instead of moving them, so a reader always sees a
+ *     consistent chain.
+ *   - Resizing is cooperative. The thread that pushes the size over the threshold
+ *     claims the resize with a compare-and-set and only then allocates a table of
+ *     twice the size, so racing threads never build one. Every thread that runs into
+ *     the resize claims a stride of buckets to copy. A copied bucket is replaced by a
+ *     forwarding node, which tells readers and writers to continue in the new table.
+ *
+ *  Null keys and null values are not allowed.
+ */
+public class ConcurrentHashMap61B<K, V> implements ConcurrentMap61B<K, V> {
+    /* Default value */
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int MIN_TRANSFER_STRIDE = 16;
+
+    /* Node hashes are non-negative; these mark special nodes */
+    private static final int MOVED = -1;
+    private static final int RESERVED = -2;
+    private static final int HASH_BITS = 0x7fffffff;
+
+    /* A key/value pair in a bucket chain */
+    private static class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /* Placed in a bucket that has been copied to the next table */
+    private static final class ForwardingNode<K, V> extends Node<K, V> {
+        final Resize<K, V> resize;
+
+        ForwardingNode(Resize<K, V> resize) {
+            super(MOVED, null, null, null);
+            this.resize = resize;
+        }
+    }
+
+    /* Holds an empty bucket while computeIfAbsent runs its function */
+    private static final class ReservationNode<K, V> extends Node<K, V> {
+        ReservationNode() {
+            super(RESERVED, null, null, null);
+        }
+    }
+
+    /* State shared by every thread taking part in one resize */
+    private static final class Resize<K, V> {
+        final AtomicReferenceArray<Node<K, V>> from;
+        final AtomicReferenceArray<Node<K, V>> to;
+        final AtomicInteger transferIndex; // Buckets below this are still unclaimed
+        final AtomicInteger remaining; // Buckets not yet copied
+        final ForwardingNode<K, V> forwarding;
+
+        Resize(AtomicReferenceArray<Node<K, V>> from) {
+            this.from = from;
+            this.to = new AtomicReferenceArray<>(from.length() * 2);
+            this.transferIndex = new AtomicInteger(from.length());
+            this.remaining = new AtomicInteger(from.length());
+            this.forwarding = new ForwardingNode<>(this);
+        }
+
+        /* The CLAIMED marker, which holds no tables */
+        Resize() {
+            this.from = null;
+            this.to = null;
+            this.transferIndex = null;
+            this.remaining = null;
+            this.forwarding = null;
+        }
+    }
+
+    /* Holds the resizing slot while its winner allocates the next table */
+    private static final Resize<?, ?> CLAIMED = new Resize<>();
+
+    /* Instance Variables */
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    private volatile int threshold;
+    private final double loadFactor;
+    private final AtomicReference<Resize<K, V>> resizing;
+    private final LongAdder count;
+    private final ReentrantLock[] locks;
+
+    /** Constructors */
+    public ConcurrentHashMap61B() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentHashMap61B(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * ConcurrentHashMap61B constructor.
+     *
+     * @param initialCapacity initial number of buckets, rounded up to a power of two
+     * @param loadFactor maximum load factor
+     * @param concurrencyLevel number of lock stripes, rounded up to a power of two
+     */
+    public ConcurrentHashMap61B(int initialCapacity, double loadFactor, int concurrencyLevel) {
+        if (loadFactor <= 0) {
+            throw new IllegalArgumentException("Load factor must be positive");
+        }
+        int capacity = powerOfTwoAtLeast(initialCapacity);
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.loadFactor = loadFactor;
+        this.threshold = (int) (capacity * loadFactor);
+        this.resizing = new AtomicReference<>();
+        this.count = new LongAdder();
+        this.locks = new ReentrantLock[powerOfTwoAtLeast(concurrencyLevel)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private static int powerOfTwoAtLeast(int n) {
+        if (n <= 1) {
+            return 1;
+        }
+        if (n >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /* Spreads the high bits down and clears the sign bit */
+    private static int spread(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & HASH_BITS;
+    }
+
+    private ReentrantLock lockFor(int index) {
+        return locks[index & (locks.length - 1)];
+    }
+
+    private static void checkKey(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+    }
+
+    private static void checkValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        checkKey(key);
+        Node<K, V> node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    /* Lock-free lookup, following forwarding nodes into newer tables */
+    private Node<K, V> getNode(Object key) {
+        int h = spread(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            Node<K, V> e = tab.get(h & (tab.length() - 1));
+            if (e instanceof ForwardingNode<K, V> f) {
+                tab = f.resize.to;
+                continue;
+            }
+            for (; e != null; e = e.next) {
+                if (e.hash == h && key.equals(e.key)) {
+                    return e;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        checkKey(key);
+        return getNode(key) != null;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        putVal(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /* Inserts or updates; returns the previous value or null */
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        checkKey(key);
+        checkValue(value);
+        int h = spread(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Node<K, V> f = tab.get(i);
+            if (f == null) {
+                if (tab.compareAndSet(i, null, new Node<>(h, key, value, null))) {
+                    break;
+                }
+                continue; // Lost the race for the empty bucket
+            }
+            if (f instanceof ForwardingNode<K, V> fwd) {
+                tab = helpTransfer(fwd);
+                continue;
+            }
+            ReentrantLock lock = lockFor(i);
+            lock.lock();
+            try {
+                if (tab.get(i) != f) {
+                    continue; // Head changed before we got the lock
+                }
+                Node<K, V> last = null;
+                for (Node<K, V> e = f; e != null; e = e.next) {
+                    if (e.hash == h && key.equals(e.key)) {
+                        V old = e.value;
+                        if (!onlyIfAbsent) {
+                            e.value = value;
+                        }
+                        return old;
+                    }
+                    last = e;
+                }
+                last.next = new Node<>(h, key, value, null);
+            } finally {
+                lock.unlock();
+            }
+            break;
+        }
+        addCount(1);
+        return null;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        checkKey(key);
+        Node<K, V> existing = getNode(key);
+        if (existing != null) {
+            return existing.value;
+        }
+        int h = spread(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        V value;
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Node<K, V> f = tab.get(i);
+            if (f instanceof ForwardingNode<K, V> fwd) {
+                tab = helpTransfer(fwd);
+                continue;
+            }
+            ReentrantLock lock = lockFor(i);
+            lock.lock();
+            try {
+                if (f == null) {
+                    // Reserve the empty bucket so that no other insert can slip in
+                    ReservationNode<K, V> reservation = new ReservationNode<>();
+                    if (!tab.compareAndSet(i, null, reservation)) {
+                        continue;
+                    }
+                    Node<K, V> node = null;
+                    try {
+                        value = mappingFunction.apply(key);
+                        if (value != null) {
+                            node = new Node<>(h, key, value, null);
+                        }
+                    } finally {
+                        tab.set(i, node);
+                    }
+                    break;
+                }
+                if (tab.get(i) != f) {
+                    continue;
+                }
+                Node<K, V> last = null;
+                for (Node<K, V> e = f; e != null; e = e.next) {
+                    if (e.hash == h && key.equals(e.key)) {
+                        return e.value;
+                    }
+                    last = e;
+                }
+                value = mappingFunction.apply(key);
+                if (value != null) {
+                    last.next = new Node<>(h, key, value, null);
+                }
+                break;
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (value != null) {
+            addCount(1);
+        }
+        return value;
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        checkKey(key);
+        checkValue(value);
+        int h = spread(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        V result;
+        int delta;
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Node<K, V> f = tab.get(i);
+            if (f == null) {
+                if (tab.compareAndSet(i, null, new Node<>(h, key, value, null))) {
+                    result = value;
+                    delta = 1;
+                    break;
+                }
+                continue;
+            }
+            if (f instanceof ForwardingNode<K, V> fwd) {
+                tab = helpTransfer(fwd);
+                continue;
+            }
+            ReentrantLock lock = lockFor(i);
+            lock.lock();
+            try {
+                if (tab.get(i) != f) {
+                    continue;
+                }
+                Node<K, V> pred = null;
+                Node<K, V> e = f;
+                while (e != null && !(e.hash == h && key.equals(e.key))) {
+                    pred = e;
+                    e = e.next;
+                }
+                if (e == null) {
+                    pred.next = new Node<>(h, key, value, null);
+                    result = value;
+                    delta = 1;
+                } else {
+                    result = remappingFunction.apply(e.value, value);
+                    if (result != null) {
+                        e.value = result;
+                        delta = 0;
+                    } else {
+                        unlink(tab, i, pred, e);
+                        delta = -1;
+                    }
+                }
+                break;
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (delta != 0) {
+            addCount(delta);
+        }
+        return result;
+    }
+
+    @Override
+    public V remove(K key) {
+        checkKey(key);
+        int h = spread(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int i = h & (tab.length() - 1);
+            Node<K, V> f = tab.get(i);
+            if (f == null) {
+                return null;
+            }
+            if (f instanceof ForwardingNode<K, V> fwd) {
+                tab = helpTransfer(fwd);
+                continue;
+            }
+            V old = null;
+            ReentrantLock lock = lockFor(i);
+            lock.lock();
+            try {
+                if (tab.get(i) != f) {
+                    continue;
+                }
+                Node<K, V> pred = null;
+                for (Node<K, V> e = f; e != null; pred = e, e = e.next) {
+                    if (e.hash == h && key.equals(e.key)) {
+                        old = e.value;
+                        unlink(tab, i, pred, e);
+                        break;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (old != null) {
+                addCount(-1);
+            }
+            return old;
+        }
+    }
+
+    /* Unlinks E from bucket I; the caller holds the bucket's lock */
+    private static <K, V> void unlink(AtomicReferenceArray<Node<K, V>> tab, int i,
+                                      Node<K, V> pred, Node<K, V> e) {
+        if (pred == null) {
+            tab.set(i, e.next);
+        } else {
+            pred.next = e.next;
+        }
+    }
+
+    @Override
+    public int size() {
+        long n = count.sum();
+        return n < 0 ? 0 : (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void clear() {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        int i = 0;
+        long removed = 0;
+        while (i < tab.length()) {
+            Node<K, V> f = tab.get(i);
+            if (f == null) {
+                i += 1;
+            } else if (f instanceof ForwardingNode<K, V> fwd) {
+                tab = helpTransfer(fwd);
+                i = 0;
+            } else {
+                ReentrantLock lock = lockFor(i);
+                lock.lock();
+                try {
+                    if (tab.get(i) == f) {
+                        for (Node<K, V> e = f; e != null; e = e.next) {
+                            removed += 1;
+                        }
+                        tab.set(i, null);
+                        i += 1;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        if (removed != 0) {
+            addCount(-removed);
+        }
+    }
+
+    /* Adjusts the size and starts or joins a resize if the table is too full */
+    private void addCount(long delta) {
+        count.add(delta);
+        if (delta <= 0) {
+            return;
+        }
+        Resize<K, V> current = resizing.get();
+        if (current != null) {
+            if (current != CLAIMED) {
+                transfer(current);
+            }
+        } else if (count.sum() > threshold) {
+            tryStartResize();
+        }
+    }
+
+    private void tryStartResize() {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        if (tab.length() >= MAXIMUM_CAPACITY) {
+            return;
+        }
+        // Claim the slot before allocating, so racing threads don't each build a 2x table
+        @SuppressWarnings("unchecked")
+        Resize<K, V> claim = (Resize<K, V>) CLAIMED;
+        if (!resizing.compareAndSet(null, claim)) {
+            return; // Someone else started one
+        }
+        if (tab != table) {
+            // A resize finished between reading the table and claiming the slot
+            resizing.set(null);
+            return;
+        }
+        Resize<K, V> resize;
+        try {
+            resize = new Resize<>(tab);
+        } catch (Throwable t) {
+            resizing.set(null); // Typically OutOfMemoryError; let a later insert retry
+            throw t;
+        }
+        resizing.set(resize);
+        transfer(resize);
+    }
+
+    /* Helps an in-progress resize and returns the table to continue in */
+    private AtomicReferenceArray<Node<K, V>> helpTransfer(ForwardingNode<K, V> fwd) {
+        if (resizing.get() == fwd.resize) {
+            transfer(fwd.resize);
+        }
+        return fwd.resize.to;
+    }
+
+    /* Claims strides of buckets until none are left; the last finisher publishes */
+    private void transfer(Resize<K, V> resize) {
+        int n = resize.from.length();
+        int stride = Math.max(MIN_TRANSFER_STRIDE, n / (4 * Runtime.getRuntime().availableProcessors()));
+        while (true) {
+            int hi = resize.transferIndex.get();
+            if (hi <= 0) {
+                return;
+            }
+            int lo = Math.max(0, hi - stride);
+            if (!resize.transferIndex.compareAndSet(hi, lo)) {
+                continue;
+            }
+            for (int i = hi - 1; i >= lo; i--) {
+                moveBucket(resize, i);
+            }
+            if (resize.remaining.addAndGet(lo - hi) == 0) {
+                table = resize.to;
+                threshold = (int) (resize.to.length() * loadFactor);
+                resizing.set(null);
+                return;
+            }
+        }
+    }
+
+    /* Copies bucket I into the lo/hi buckets of the next table, then forwards it */
+    private void moveBucket(Resize<K, V> resize, int i) {
+        int n = resize.from.length();
+        while (true) {
+            Node<K, V> f = resize.from.get(i);
+            if (f == null) {
+                if (resize.from.compareAndSet(i, null, resize.forwarding)) {
+                    return;
+                }
+                continue;
+            }
+            ReentrantLock lock = lockFor(i);
+            lock.lock();
+            try {
+                if (resize.from.get(i) != f) {
+                    continue;
+                }
+                Node<K, V> lo = null;
+                Node<K, V> hi = null;
+                for (Node<K, V> e = f; e != null; e = e.next) {
+                    // Copy rather than relink, so lock-free readers of the old chain are unaffected
+                    if ((e.hash & n) == 0) {
+                        lo = new Node<>(e.hash, e.key, e.value, lo);
+                    } else {
+                        hi = new Node<>(e.hash, e.key, e.value, hi);
+                    }
+                }
+                resize.to.set(i, lo);
+                resize.to.set(i + n, hi);
+                resize.from.set(i, resize.forwarding);
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    /*
+     * Weakly consistent traversal: never throws ConcurrentModificationException and
+     * sees each key present for the whole traversal exactly once. Forwarded buckets
+     * are expanded into their two halves in the next table.
+     */
+    private abstract class Traverser<E> implements Iterator<E> {
+        private final AtomicReferenceArray<Node<K, V>> base = table;
+        private int baseIndex = 0;
+        private final Deque<AtomicReferenceArray<Node<K, V>>> pendingTables = new ArrayDeque<>();
+        private final Deque<Integer> pendingIndexes = new ArrayDeque<>();
+        private Node<K, V> next;
+        private K lastKey;
+
+        Traverser() {
+            next = advance(null);
+        }
+
+        private Node<K, V> advance(Node<K, V> e) {
+            e = e == null ? null : e.next;
+            while (true) {
+                while (e != null && e.key == null) {
+                    e = e.next; // Skip reservation nodes
+                }
+                if (e != null) {
+                    return e;
+                }
+                AtomicReferenceArray<Node<K, V>> tab;
+                int index;
+                if (!pendingTables.isEmpty()) {
+                    tab = pendingTables.pop();
+                    index = pendingIndexes.pop();
+                } else if (baseIndex < base.length()) {
+                    tab = base;
+                    index = baseIndex++;
+                } else {
+                    return null;
+                }
+                e = tab.get(index);
+                if (e instanceof ForwardingNode<K, V> fwd) {
+                    AtomicReferenceArray<Node<K, V>> to = fwd.resize.to;
+                    pendingTables.push(to);
+                    pendingIndexes.push(index + tab.length());
+                    pendingTables.push(to);
+                    pendingIndexes.push(index);
+                    e = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        Node<K, V> nextNode() {
+            Node<K, V> e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            lastKey = e.key;
+            next = advance(e);
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            ConcurrentHashMap61B.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    private class KeyIterator extends Traverser<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private class ValueIterator extends Traverser<V> {
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    private class EntryIterator extends Traverser<Map.Entry<K, V>> {
+        @Override
+        public Map.Entry<K, V> next() {
+            Node<K, V> e = nextNode();
+            return new MapEntry(e.key, e.value);
+        }
+    }
+
+    /* A snapshot of one mapping whose setValue writes through with put() */
+    private class MapEntry implements Map.Entry<K, V> {
+        private final K key;
+        private V value;
+
+        MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V v) {
+            checkValue(v);
+            V old = value;
+            value = v;
+            put(key, v);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /* Live views backed by the table */
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentHashMap61B.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && getNode(o) != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return o != null && ConcurrentHashMap61B.this.remove((K) o) != null;
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashMap61B.this.clear();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentHashMap61B.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashMap61B.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentHashMap61B.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || e.getKey() == null) {
+                return false;
+            }
+            Node<K, V> node = getNode(e.getKey());
+            return node != null && Objects.equals(node.value, e.getValue());
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashMap61B.this.clear();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package DataStructure.Map;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/* A Map61B that may be shared between threads. Implementations do not allow null
+ * keys or null values, so a null return always means "no mapping".
+ */
+public interface ConcurrentMap61B<K, V> extends Map61B<K, V> {
+
+    /** Associates VALUE with KEY only if KEY is not already mapped. Returns the value
+     *  previously associated with KEY, or null if VALUE was inserted. */
+    V putIfAbsent(K key, V value);
+
+    /** If KEY is not mapped, computes a value with MAPPINGFUNCTION and inserts it unless
+     *  it is null. The function is applied at most once per call, atomically with respect
+     *  to other updates of KEY, and must not modify this map. Returns the current
+     *  (existing or computed) value, or null if none. */
+    V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction);
+
+    /** If KEY is not mapped, associates it with VALUE. Otherwise replaces the current
+     *  value with REMAPPINGFUNCTION(current, VALUE), or removes the mapping if that
+     *  returns null. The update is atomic and the function must not modify this map.
+     *  Returns the new value, or null if the mapping was removed. */
+    V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction);
+}
@@ -0,0 +1,915 @@
+package DataStructure.Map;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ *  A thread-safe ordered map backed by a skip list. Reads are lock-free; updates are
+ *  lock-free too, except that an update of a key reserved by computeIfAbsent() waits
+ *  until the reservation is resolved.
+ *
+ *  Every node has a tower of forward links, one per level it was promoted to. Links are
+ *  only ever changed by compare-and-set, and no thread holds a lock while it changes
+ *  them. A link is marked by swapping its successor for a Marker that wraps it, which
+ *  keeps the common, unmarked case a plain reference instead of a reference-and-flag
+ *  pair:
+ *   - put() links a new node into level 0 with a single CAS, which makes the mapping
+ *     visible, then links the rest of the tower bottom-up.
+ *   - remove() deletes lazily. A CAS of the node's value to null decides which thread
+ *     removed the mapping. The tower's links are then marked top-down so that no new
+ *     node can be linked after it, and the next traversal that meets a marked link
+ *     unlinks the node.
+ *   - get(), floor() and ceiling() never write and never wait. They step over marked
+ *     and pending nodes instead of unlinking them, and return as soon as level 0 is
+ *     reached.
+ *
+ *  A node is promoted to each next level with probability P, up to MAXLEVEL levels, so
+ *  a search visits about 1 / P nodes per level on log base 1 / P levels.
+ *
+ *  merge() takes no reservation: its function may run on a value that another thread
+ *  replaces first, in which case it runs again on the new value. computeIfAbsent() of
+ *  an absent key links a node whose value is a Pending reservation, with the same
+ *  single CAS as put(), runs the function and then publishes the result into that
+ *  node. Readers treat a pending node as absent, and every other update of its key,
+ *  including a racing computeIfAbsent(), waits until it is resolved, so the function
+ *  runs at most once per key however many threads race on it. Any update, merge()
+ *  included, can therefore block for as long as such a function runs on the same key;
+ *  reads and iterators never wait. Iterators are weakly consistent. Null keys and null
+ *  values are not allowed.
+ */
+public class ConcurrentSkipListMap61B<K extends Comparable<K>, V> implements ConcurrentMap61B<K, V> {
+    /* Default value */
+    private static final double DEFAULT_P = 0.5;
+    private static final int DEFAULT_MAX_LEVEL = 32;
+
+    /* A key and value with a tower of forward links; value is null once removed */
+    private static class Node<K, V> {
+        final K key;
+        volatile Object value;
+        final Node<K, V>[] next; // Read and written through NEXT only, once published
+
+        @SuppressWarnings("unchecked")
+        Node(K key, Object value, int height) {
+            this.key = key;
+            this.value = value;
+            this.next = (Node<K, V>[]) new Node<?, ?>[height];
+        }
+
+        boolean casValue(Object expected, Object update) {
+            return VALUE.compareAndSet(this, expected, update);
+        }
+
+        /* The link at LEVEL: the successor, or a Marker wrapping it once marked */
+        @SuppressWarnings("unchecked")
+        Node<K, V> link(int level) {
+            return (Node<K, V>) NEXT.getVolatile(next, level);
+        }
+
+        boolean casLink(int level, Node<K, V> expected, Node<K, V> update) {
+            return NEXT.compareAndSet(next, level, expected, update);
+        }
+
+        private static final VarHandle VALUE;
+        private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Node[].class);
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Node.class, "value", Object.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    /* Replaces a removed node's link to SUCCESSOR; nothing can be linked after it */
+    private static final class Marker<K, V> extends Node<K, V> {
+        final Node<K, V> successor;
+
+        Marker(Node<K, V> successor) {
+            super(null, null, 0);
+            this.successor = successor;
+        }
+    }
+
+    /* Value of a node whose computeIfAbsent() function is still running */
+    private static final class Pending {
+        final Thread owner = Thread.currentThread();
+        final CountDownLatch resolved = new CountDownLatch(1);
+
+        /* Blocks until the node holds the computed value, or was unlinked */
+        void await() {
+            if (owner == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive update");
+            }
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    resolved.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /* Whether a node with VALUE holds a mapping: neither removed nor pending */
+    private static boolean isLive(Object value) {
+        return value != null && !(value instanceof Pending);
+    }
+
+    /* The successor a link points to, whether or not it is marked */
+    private static <K, V> Node<K, V> unwrap(Node<K, V> link) {
+        return link instanceof Marker<K, V> marker ? marker.successor : link;
+    }
+
+    /* Instance Variables */
+    private final Node<K, V> head;
+    private final double p;
+    private final int maxLevel;
+    private final AtomicInteger levels; // Height of the tallest node ever linked
+    private final LongAdder count;
+
+    /** Constructors */
+    public ConcurrentSkipListMap61B() {
+        this(DEFAULT_P, DEFAULT_MAX_LEVEL);
+    }
+
+    /**
+     * ConcurrentSkipListMap61B constructor.
+     *
+     * @param p probability that a node is promoted to the next level
+     * @param maxLevel maximum height of a tower
+     */
+    public ConcurrentSkipListMap61B(double p, int maxLevel) {
+        if (!(p > 0 && p < 1)) {
+            throw new IllegalArgumentException("Promotion probability must be between 0 and 1");
+        }
+        if (maxLevel < 1 || maxLevel > 64) {
+            throw new IllegalArgumentException("Maximum level must be between 1 and 64");
+        }
+        this.p = p;
+        this.maxLevel = maxLevel;
+        this.head = new Node<>(null, null, maxLevel);
+        this.levels = new AtomicInteger(1);
+        this.count = new LongAdder();
+    }
+
+    private static void checkKey(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+    }
+
+    private static void checkValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+    }
+
+    /* Height of a new tower: 1, plus one for every promotion with probability p */
+    private int randomLevel() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int level = 1;
+        while (level < maxLevel && random.nextDouble() < p) {
+            level += 1;
+        }
+        return level;
+    }
+
+    /*
+     * Fills PREDS and SUCCS with, at each level, the last node whose key is less than
+     * KEY and the node after it, unlinking marked nodes on the way. Returns whether
+     * SUCCS[0] holds KEY. Only the lowest levels.get() entries are filled.
+     */
+    private boolean find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+        retry:
+        while (true) {
+            Node<K, V> pred = head;
+            Node<K, V> curr = null;
+            for (int level = levels.get() - 1; level >= 0; level--) {
+                curr = unwrap(pred.link(level));
+                while (curr != null) {
+                    Node<K, V> succ = curr.link(level);
+                    while (succ instanceof Marker<K, V> marker) {
+                        if (!pred.casLink(level, curr, marker.successor)) {
+                            continue retry; // PRED changed or was itself removed
+                        }
+                        curr = marker.successor;
+                        if (curr == null) {
+                            break;
+                        }
+                        succ = curr.link(level);
+                    }
+                    if (curr == null || curr.key.compareTo(key) >= 0) {
+                        break;
+                    }
+                    pred = curr;
+                    curr = succ;
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return curr != null && curr.key.compareTo(key) == 0;
+        }
+    }
+
+    /*
+     * Read-only search: returns the last node at level 0 whose key is less than KEY,
+     * stepping over marked nodes without unlinking them. May return HEAD.
+     */
+    private Node<K, V> findPredecessor(K key) {
+        Node<K, V> pred = head;
+        for (int level = levels.get() - 1; level >= 0; level--) {
+            Node<K, V> curr = unwrap(pred.link(level));
+            while (curr != null) {
+                Node<K, V> succ = curr.link(level);
+                if (!(succ instanceof Marker<K, V> marker)) {
+                    if (curr.key.compareTo(key) >= 0) {
+                        break;
+                    }
+                    pred = curr;
+                } else {
+                    succ = marker.successor;
+                }
+                curr = succ;
+            }
+        }
+        return pred;
+    }
+
+    /* Returns the first live node at or after the level 0 successor of PRED, or null */
+    private Node<K, V> firstLiveAfter(Node<K, V> pred) {
+        Node<K, V> curr = unwrap(pred.link(0));
+        while (curr != null && !isLive(curr.value)) {
+            curr = unwrap(curr.link(0));
+        }
+        return curr;
+    }
+
+    /* Returns the live node holding KEY, or null */
+    private Node<K, V> getNode(K key) {
+        Node<K, V> curr = unwrap(findPredecessor(key).link(0));
+        while (curr != null) {
+            int cmp = curr.key.compareTo(key);
+            if (cmp > 0) {
+                return null;
+            }
+            if (cmp == 0 && isLive(curr.value)) {
+                return curr;
+            }
+            curr = unwrap(curr.link(0)); // Skip a removed or pending node, or a stale predecessor's successor
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        checkKey(key);
+        Node<K, V> node = getNode(key);
+        return node == null ? null : (V) node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        checkKey(key);
+        return getNode(key) != null;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        checkKey(key);
+        checkValue(value);
+        doPut(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        checkKey(key);
+        checkValue(value);
+        return doPut(key, value, true);
+    }
+
+    /* Inserts or (unless ONLYIFABSENT) replaces the mapping for KEY; returns the old value */
+    @SuppressWarnings("unchecked")
+    private V doPut(K key, V value, boolean onlyIfAbsent) {
+        int height = randomLevel();
+        levels.accumulateAndGet(height, Math::max); // Before find(), so it fills every level of the tower
+        Node<K, V>[] preds = newNodeArray();
+        Node<K, V>[] succs = newNodeArray();
+        while (true) {
+            if (find(key, preds, succs)) {
+                Node<K, V> node = succs[0];
+                Object current = node.value;
+                if (current instanceof Pending pending) {
+                    pending.await();
+                    continue;
+                }
+                if (current != null) {
+                    if (onlyIfAbsent || node.casValue(current, value)) {
+                        return (V) current;
+                    }
+                    continue; // Lost a race with another update
+                }
+                markTower(node); // Help a remover that has not marked the tower yet
+                continue;
+            }
+            Node<K, V> node = new Node<>(key, value, height);
+            System.arraycopy(succs, 0, node.next, 0, height); // Published by the CAS below
+            if (!preds[0].casLink(0, succs[0], node)) {
+                continue;
+            }
+            count.increment();
+            linkTower(node, preds, succs);
+            return null;
+        }
+    }
+
+    /* Links the upper levels of NODE, which is already in level 0 */
+    private void linkTower(Node<K, V> node, Node<K, V>[] preds, Node<K, V>[] succs) {
+        for (int level = 1; level < node.next.length; level++) {
+            while (true) {
+                Node<K, V> succ = succs[level];
+                Node<K, V> current = node.link(level);
+                if (current instanceof Marker || (current != succ && !node.casLink(level, current, succ))) {
+                    return; // Marked: NODE is being removed, so stop promoting it
+                }
+                if (preds[level].casLink(level, succ, node)) {
+                    break;
+                }
+                if (!find(node.key, preds, succs) || succs[0] != node) {
+                    return; // Removed, and possibly replaced by a new node for the same key
+                }
+            }
+        }
+    }
+
+    /* Marks every link of NODE's tower, top-down, so nothing can be linked after it */
+    private static <K, V> void markTower(Node<K, V> node) {
+        for (int level = node.next.length - 1; level >= 0; level--) {
+            Node<K, V> succ = node.link(level);
+            while (!(succ instanceof Marker) && !node.casLink(level, succ, new Marker<>(succ))) {
+                succ = node.link(level);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V>[] newNodeArray() {
+        return (Node<K, V>[]) new Node<?, ?>[maxLevel];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        checkKey(key);
+        Node<K, V>[] preds = newNodeArray();
+        Node<K, V>[] succs = newNodeArray();
+        while (true) {
+            if (!find(key, preds, succs)) {
+                return null;
+            }
+            Node<K, V> node = succs[0];
+            Object current = node.value;
+            if (current instanceof Pending pending) {
+                pending.await();
+                continue;
+            }
+            if (current == null) {
+                markTower(node); // Removed but still linked; help, then look again
+                continue;
+            }
+            if (node.casValue(current, null)) {
+                unlink(node, preds, succs);
+                return (V) current;
+            }
+        }
+    }
+
+    /* Finishes removing NODE, whose value this thread has just set to null */
+    private void unlink(Node<K, V> node, Node<K, V>[] preds, Node<K, V>[] succs) {
+        count.decrement();
+        markTower(node);
+        find(node.key, preds, succs); // Unlinks every marked link on the way
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        checkKey(key);
+        Node<K, V> existing = getNode(key);
+        if (existing != null) {
+            Object current = existing.value;
+            if (current != null) {
+                return (V) current;
+            }
+        }
+        int height = randomLevel();
+        levels.accumulateAndGet(height, Math::max);
+        Node<K, V>[] preds = newNodeArray();
+        Node<K, V>[] succs = newNodeArray();
+        while (true) {
+            if (find(key, preds, succs)) {
+                Node<K, V> node = succs[0];
+                Object current = node.value;
+                if (current instanceof Pending pending) {
+                    pending.await(); // Another thread is computing KEY; take its result
+                    continue;
+                }
+                if (current != null) {
+                    return (V) current;
+                }
+                markTower(node);
+                continue;
+            }
+            // Reserve KEY with a pending node, so that racing updates wait for this one
+            Pending pending = new Pending();
+            Node<K, V> node = new Node<>(key, pending, height);
+            System.arraycopy(succs, 0, node.next, 0, height);
+            if (!preds[0].casLink(0, succs[0], node)) {
+                continue;
+            }
+            linkTower(node, preds, succs);
+            V value = null;
+            try {
+                value = mappingFunction.apply(key);
+            } finally {
+                if (value != null) {
+                    node.value = value;
+                    count.increment();
+                } else {
+                    node.value = null; // Nothing to map: unlink the reservation
+                    markTower(node);
+                    find(key, preds, succs);
+                }
+                pending.resolved.countDown();
+            }
+            return value;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        checkKey(key);
+        checkValue(value);
+        Node<K, V>[] preds = newNodeArray();
+        Node<K, V>[] succs = newNodeArray();
+        while (true) {
+            Node<K, V> node = getNode(key);
+            if (node == null) {
+                if (doPut(key, value, true) == null) {
+                    return value;
+                }
+                continue;
+            }
+            Object current = node.value;
+            if (current == null) {
+                continue;
+            }
+            V merged = remappingFunction.apply((V) current, value);
+            if (merged == null) {
+                if (node.casValue(current, null)) {
+                    unlink(node, preds, succs);
+                    return null;
+                }
+            } else if (node.casValue(current, merged)) {
+                return merged;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        long n = count.sum();
+        return n < 0 ? 0 : (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    /** Removes every mapping in one pass over the list. Mappings inserted
+     *  concurrently may survive. */
+    @Override
+    public void clear() {
+        for (Node<K, V> node = firstLiveAfter(head); node != null; node = firstLiveAfter(node)) {
+            remove(node.key);
+        }
+    }
+
+    /* Ordered navigation */
+
+    /** Returns the smallest key, or null if the map is empty. */
+    public K min() {
+        Node<K, V> node = firstLiveAfter(head);
+        return node == null ? null : node.key;
+    }
+
+    /** Returns the largest key, or null if the map is empty. */
+    public K max() {
+        while (true) {
+            Node<K, V> pred = head;
+            for (int level = levels.get() - 1; level >= 0; level--) {
+                Node<K, V> curr = unwrap(pred.link(level));
+                while (curr != null) {
+                    Node<K, V> succ = curr.link(level);
+                    if (!(succ instanceof Marker)) {
+                        pred = curr;
+                    }
+                    curr = unwrap(succ);
+                }
+            }
+            if (pred == head) {
+                return null;
+            }
+            Object value = pred.value;
+            if (isLive(value)) {
+                return pred.key;
+            }
+            if (value != null) {
+                return floorKey(pred.key, false); // The last node is still pending
+            }
+        }
+    }
+
+    /** Returns the largest key less than or equal to KEY, or null if there is none. */
+    public K floor(K key) {
+        checkKey(key);
+        return floorKey(key, true);
+    }
+
+    /* Returns the largest live key below KEY, or equal to it if INCLUSIVE, or null */
+    private K floorKey(K key, boolean inclusive) {
+        K bound = key;
+        while (true) {
+            Node<K, V> pred = findPredecessor(bound);
+            Node<K, V> floor = null;
+            for (Node<K, V> curr = unwrap(pred.link(0)); curr != null; curr = unwrap(curr.link(0))) {
+                int cmp = curr.key.compareTo(key);
+                if (cmp > 0 || cmp == 0 && !inclusive) {
+                    break;
+                }
+                if (isLive(curr.value)) {
+                    floor = curr; // Inserted after the search, or KEY itself
+                }
+            }
+            if (floor != null) {
+                return floor.key;
+            }
+            if (pred == head) {
+                return null;
+            }
+            if (isLive(pred.value)) {
+                return pred.key;
+            }
+            // PRED was removed after the search passed it, or is pending; search below it
+            bound = pred.key;
+        }
+    }
+
+    /** Returns the smallest key greater than or equal to KEY, or null if there is none. */
+    public K ceiling(K key) {
+        checkKey(key);
+        Node<K, V> node = firstLiveAfter(findPredecessor(key));
+        while (node != null && node.key.compareTo(key) < 0) {
+            node = firstLiveAfter(node);
+        }
+        return node == null ? null : node.key;
+    }
+
+    /**
+     * Returns the mappings whose keys lie between LO and HI, inclusive, in ascending
+     * key order. Each iteration searches for LO once and then walks level 0; it is
+     * weakly consistent, like the other iterators.
+     */
+    public Iterable<Map.Entry<K, V>> range(K lo, K hi) {
+        checkKey(lo);
+        checkKey(hi);
+        return () -> new EntryIterator(lo, hi);
+    }
+
+    /* Iteration */
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    /*
+     * Weakly consistent traversal of level 0 from LO to HI (null for unbounded). Never
+     * throws ConcurrentModificationException and returns keys in ascending order; each
+     * mapping present for the whole traversal is returned once.
+     */
+    private abstract class Traverser<E> implements Iterator<E> {
+        private final K hi;
+        private Node<K, V> next;
+        private Object nextValue;
+        private K lastKey;
+
+        Traverser(K lo, K hi) {
+            this.hi = hi;
+            Node<K, V> node = firstLiveAfter(lo == null ? head : findPredecessor(lo));
+            while (node != null && lo != null && node.key.compareTo(lo) < 0) {
+                node = firstLiveAfter(node);
+            }
+            advanceTo(node);
+        }
+
+        /* Moves to NODE, or the first live node after it, capturing its value */
+        private void advanceTo(Node<K, V> node) {
+            while (node != null) {
+                if (hi != null && node.key.compareTo(hi) > 0) {
+                    break;
+                }
+                Object value = node.value;
+                if (isLive(value)) {
+                    next = node;
+                    nextValue = value;
+                    return;
+                }
+                node = unwrap(node.link(0));
+            }
+            next = null;
+            nextValue = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map.Entry<K, V> nextEntry() {
+            Node<K, V> e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> entry = new MapEntry(e.key, (V) nextValue);
+            lastKey = e.key;
+            advanceTo(unwrap(e.link(0)));
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            ConcurrentSkipListMap61B.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    private class KeyIterator extends Traverser<K> {
+        KeyIterator() {
+            super(null, null);
+        }
+
+        @Override
+        public K next() {
+            return nextEntry().getKey();
+        }
+    }
+
+    private class ValueIterator extends Traverser<V> {
+        ValueIterator() {
+            super(null, null);
+        }
+
+        @Override
+        public V next() {
+            return nextEntry().getValue();
+        }
+    }
+
+    private class EntryIterator extends Traverser<Map.Entry<K, V>> {
+        EntryIterator(K lo, K hi) {
+            super(lo, hi);
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            return nextEntry();
+        }
+    }
+
+    /* A snapshot of one mapping whose setValue writes through with put() */
+    private class MapEntry implements Map.Entry<K, V> {
+        private final K key;
+        private V value;
+
+        MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V v) {
+            checkValue(v);
+            V old = value;
+            value = v;
+            put(key, v);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /* Live views backed by the list */
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentSkipListMap61B.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return o != null && getNode((K) o) != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return o != null && ConcurrentSkipListMap61B.this.remove((K) o) != null;
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentSkipListMap61B.this.clear();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentSkipListMap61B.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentSkipListMap61B.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator(null, null);
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentSkipListMap61B.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || e.getKey() == null) {
+                return false;
+            }
+            Node<K, V> node = getNode((K) e.getKey());
+            return node != null && Objects.equals(node.value, e.getValue());
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentSkipListMap61B.this.clear();
+        }
+    }
+
+    /* Benchmark */
+
+    private interface Bench {
+        Integer get(Integer key);
+        void put(Integer key);
+        void remove(Integer key);
+    }
+
+    /* Runs THREADS threads doing 80% get, 10% put, 10% remove for MILLIS; returns ops/s */
+    private static double throughput(Bench bench, int threads, int keyRange, long millis) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                while ((done & 0xff) != 0 || System.nanoTime() < deadline) {
+                    Integer key = random.nextInt(keyRange);
+                    int op = random.nextInt(10);
+                    if (op < 8) {
+                        bench.get(key);
+                    } else if (op == 8) {
+                        bench.put(key);
+                    } else {
+                        bench.remove(key);
+                    }
+                    done += 1;
+                }
+                ops.add(done);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum() * 1000.0 / millis;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int keyRange = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        for (int threads : new int[]{1, 8, 32}) {
+            ConcurrentSkipListMap61B<Integer, Integer> skipList = new ConcurrentSkipListMap61B<>();
+            BSTMap<Integer, Integer> tree = new BSTMap<>();
+            Random random = new Random(42);
+            for (int i = 0; i < keyRange / 2; i++) {
+                int key = random.nextInt(keyRange);
+                skipList.put(key, key);
+                tree.put(key, key);
+            }
+            Bench lockFree = new Bench() {
+                public Integer get(Integer key) { return skipList.get(key); }
+                public void put(Integer key) { skipList.put(key, key); }
+                public void remove(Integer key) { skipList.remove(key); }
+            };
+            Bench locked = new Bench() {
+                public Integer get(Integer key) { synchronized (tree) { return tree.get(key); } }
+                public void put(Integer key) { synchronized (tree) { tree.put(key, key); } }
+                public void remove(Integer key) { synchronized (tree) { tree.remove(key); } }
+            };
+            throughput(lockFree, threads, keyRange, millis / 4); // Warm up the JIT
+            throughput(locked, threads, keyRange, millis / 4);
+            System.out.printf("%2d threads: ConcurrentSkipListMap61B %,12.0f ops/s   synchronized BSTMap %,12.0f ops/s%n",
+                    threads, throughput(lockFree, threads, keyRange, millis), throughput(locked, threads, keyRange, millis));
+        }
+    }
+}
@@ -0,0 +1,963 @@
+package DataStructure.Map;
+
+import DataStructure.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ *  A B+tree map stored in fixed-size pages of a file, for indices larger than the heap.
+ *
+ *  Page 0 is a header (root page, page count, size). Every other page is a leaf or an
+ *  internal node, encoded as length-prefixed cells written by the key and value
+ *  Serializers. Leaves are chained left to right, so range cursors read leaves in
+ *  sequence. Keys are decoded when a page is loaded; values only when one is read.
+ *
+ *  Pages are cached on the heap by a bounded page cache with clock (second-chance)
+ *  eviction, so the upper levels of the tree stay resident and a point lookup on a
+ *  cold leaf costs about one page read. Pages touched by the operation in progress are
+ *  pinned and never evicted from under it.
+ *
+ *  Every put() and remove() is atomic and durable through a write-ahead log next to
+ *  the data file. When an operation finishes, the after-images of the pages it changed
+ *  are appended to the log, followed by a commit marker. Dirty pages reach the data
+ *  file only later, on eviction or at a checkpoint, and a checkpoint then truncates
+ *  the log. Before any page is written to the data file, the log is forced up to its
+ *  current end, so even without syncOnCommit a crash loses at most the last few
+ *  operations and never leaves pages on disk that the log cannot account for.
+ *  Opening a tree replays the committed transactions in the log and drops a torn tail.
+ *
+ *  Deletion is lazy: entries are removed from their leaf, but pages are never merged
+ *  or freed, and empty leaves stay in the chain. Not thread-safe. Null keys and values
+ *  are not allowed.
+ */
+public class DiskBPlusTree<K extends Comparable<K>, V> implements Map61B<K, V>, Closeable {
+    /* Default value */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    private static final int DEFAULT_CACHE_PAGES = 1024;
+    private static final long DEFAULT_CHECKPOINT_BYTES = 64L << 20;
+
+    /* Header page layout */
+    private static final int MAGIC = 0x44425054; // "DBPT"
+    private static final int VERSION = 1;
+
+    /* Node page layout: [byte type][int count][int next leaf or first child][cells...] */
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int NODE_HEADER_BYTES = 9;
+    private static final int NO_PAGE = -1;
+
+    /* Log record: [int pageId][int length][int crc][encoded page], or [int COMMIT][int page records] */
+    private static final int COMMIT = -1;
+    private static final int PAGE_RECORD_BYTES = 12;
+    private static final int COMMIT_RECORD_BYTES = 8;
+    private static final int HEADER_BYTES = 28;
+
+    /* Instance Variables */
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final int pageSize;
+    private final int maxCellBytes; // Largest leaf cell; four of them always fit in a page
+    private final int cachePages;
+    private final boolean syncOnCommit;
+    private final FileChannel data;
+    private final FileChannel log;
+    private final Path logPath;
+    private long logBytes; // Length of the log, which starts empty after recovery
+    private long forcedLogBytes; // Length of the log known to be on disk
+    private final ByteBuffer pageBuffer; // Staging for data file reads and writes
+    private ByteBuffer logBuffer; // Staging for log appends, grown on demand
+    private final CRC32 checksum = new CRC32();
+
+    private int rootPage;
+    private int pageCount;
+    private long size;
+    private boolean headerDirty;
+    private int modCount;
+
+    /* Page cache */
+    private final IntObjectMap<Page> resident = new IntObjectMap<>();
+    private final ArrayList<Page> clock = new ArrayList<>();
+    private int clockHand;
+    private final ArrayList<Page> pinned = new ArrayList<>(); // Touched by the current operation
+
+    /* A decoded page. Keys are kept both decoded, for searching, and encoded, for writing */
+    private final class Page {
+        final int id;
+        final boolean leaf;
+        final ArrayList<K> keys = new ArrayList<>();
+        final ArrayList<byte[]> keyBytes = new ArrayList<>();
+        final ArrayList<byte[]> values = new ArrayList<>(); // Encoded values, leaves only
+        int[] children = new int[8]; // keys.size() + 1 children, internal nodes only
+        int next = NO_PAGE; // Right sibling, leaves only
+        int bytes = NODE_HEADER_BYTES; // Encoded size
+        boolean dirty;
+        boolean referenced;
+        boolean isPinned;
+
+        Page(int id, boolean leaf) {
+            this.id = id;
+            this.leaf = leaf;
+        }
+
+        int count() {
+            return keys.size();
+        }
+    }
+
+    /** Constructors */
+    public DiskBPlusTree(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+        this(file, keySerializer, valueSerializer, DEFAULT_PAGE_SIZE, DEFAULT_CACHE_PAGES, true);
+    }
+
+    /**
+     * Opens the tree stored in FILE, creating it if needed and recovering committed
+     * operations from its write-ahead log (FILE + ".wal").
+     *
+     * @param file the data file
+     * @param keySerializer encodes keys
+     * @param valueSerializer encodes values
+     * @param pageSize page size in bytes for a new file; must match an existing file
+     * @param cachePages number of pages the page cache holds
+     * @param syncOnCommit whether every operation forces the log to disk before returning
+     */
+    public DiskBPlusTree(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                         int pageSize, int cachePages, boolean syncOnCommit) throws IOException {
+        if (pageSize < 256 || cachePages < 8) {
+            throw new IllegalArgumentException("Page size must be at least 256 and the cache at least 8 pages");
+        }
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.pageSize = pageSize;
+        this.maxCellBytes = (pageSize - NODE_HEADER_BYTES) / 4;
+        this.cachePages = cachePages;
+        this.pageBuffer = ByteBuffer.allocateDirect(pageSize);
+        this.logBuffer = ByteBuffer.allocateDirect(4 * pageSize);
+        this.syncOnCommit = syncOnCommit;
+        this.logPath = file.resolveSibling(file.getFileName() + ".wal");
+        this.data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recover();
+            if (data.size() == 0) {
+                initialize();
+            } else {
+                readHeader();
+            }
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            log.close();
+            throw e;
+        }
+    }
+
+    /* Starts an empty tree: a header and one empty root leaf */
+    private void initialize() throws IOException {
+        data.truncate(0);
+        Page root = new Page(1, true);
+        writePage(root);
+        rootPage = 1;
+        pageCount = 2;
+        size = 0;
+        writeHeader(); // Last, so a file without a header is never half-initialized
+        data.force(true);
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a DiskBPlusTree file");
+        }
+        if (header.getInt() != VERSION) {
+            throw new IOException("Unsupported DiskBPlusTree version");
+        }
+        if (header.getInt() != pageSize) {
+            throw new IOException("File was written with a different page size");
+        }
+        rootPage = header.getInt();
+        pageCount = header.getInt();
+        size = header.getLong();
+    }
+
+    private void encodeHeader(ByteBuffer out) {
+        out.putInt(MAGIC).putInt(VERSION).putInt(pageSize).putInt(rootPage).putInt(pageCount).putLong(size);
+    }
+
+    private void writeHeader() throws IOException {
+        pageBuffer.clear();
+        encodeHeader(pageBuffer);
+        pageBuffer.flip();
+        writeFully(pageBuffer, 0);
+    }
+
+    /* Applies every committed transaction in the log to the data file, then empties the log */
+    private void recover() throws IOException {
+        long length = log.size();
+        if (length == 0) {
+            return;
+        }
+        MappedByteBuffer in = log.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        ArrayList<Integer> pendingIds = new ArrayList<>();
+        ArrayList<ByteBuffer> pendingImages = new ArrayList<>();
+        while (in.remaining() >= COMMIT_RECORD_BYTES) {
+            int pageId = in.getInt();
+            int word = in.getInt();
+            if (pageId == COMMIT) {
+                if (word != pendingIds.size()) {
+                    break;
+                }
+                for (int i = 0; i < pendingIds.size(); i++) {
+                    pageBuffer.clear();
+                    pageBuffer.put(pendingImages.get(i));
+                    pageBuffer.clear();
+                    writeFully(pageBuffer, (long) pendingIds.get(i) * pageSize);
+                }
+                pendingIds.clear();
+                pendingImages.clear();
+                continue;
+            }
+            if (in.remaining() < 4 || word < 0 || word > pageSize || in.remaining() - 4 < word) {
+                break; // Torn tail
+            }
+            int crc = in.getInt();
+            ByteBuffer image = in.slice(in.position(), word);
+            in.position(in.position() + word);
+            if (checksum(pageId, image) != crc) {
+                break;
+            }
+            pendingIds.add(pageId);
+            pendingImages.add(image);
+        }
+        data.force(true);
+        log.truncate(0);
+        log.force(true);
+    }
+
+    /* CRC-32 of the page id and the encoded page between IMAGE's position and limit */
+    private int checksum(int pageId, ByteBuffer image) {
+        checksum.reset();
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            checksum.update(pageId >>> shift);
+        }
+        checksum.update(image.duplicate());
+        return (int) checksum.getValue();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at page " + position / pageSize);
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        ByteBuffer b = buffer.duplicate();
+        while (b.hasRemaining()) {
+            position += data.write(b, position);
+        }
+    }
+
+    /* Page encoding */
+
+    /* Appends the encoding of PAGE, at most pageSize bytes, to OUT */
+    private void encode(Page page, ByteBuffer out) {
+        out.put(page.leaf ? LEAF : INTERNAL).putInt(page.count()).putInt(page.leaf ? page.next : page.children[0]);
+        for (int i = 0; i < page.count(); i++) {
+            byte[] key = page.keyBytes.get(i);
+            out.putInt(key.length).put(key);
+            if (page.leaf) {
+                byte[] value = page.values.get(i);
+                out.putInt(value.length).put(value);
+            } else {
+                out.putInt(page.children[i + 1]);
+            }
+        }
+    }
+
+    private Page decode(int id, ByteBuffer in) {
+        byte type = in.get();
+        if (type != LEAF && type != INTERNAL) {
+            throw new IllegalStateException("Page " + id + " is corrupt");
+        }
+        Page page = new Page(id, type == LEAF);
+        int count = in.getInt();
+        int link = in.getInt();
+        if (page.leaf) {
+            page.next = link;
+        } else {
+            page.children = new int[Math.max(8, count + 2)];
+            page.children[0] = link;
+        }
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[in.getInt()];
+            in.get(key);
+            page.keyBytes.add(key);
+            page.keys.add(keySerializer.read(ByteBuffer.wrap(key)));
+            page.bytes += 4 + key.length;
+            if (page.leaf) {
+                byte[] value = new byte[in.getInt()];
+                in.get(value);
+                page.values.add(value);
+                page.bytes += 4 + value.length;
+            } else {
+                page.children[i + 1] = in.getInt();
+                page.bytes += 4;
+            }
+        }
+        return page;
+    }
+
+    private static <T> byte[] serialize(Serializer<T> serializer, T item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            serializer.write(item, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // ByteArrayOutputStream does not fail
+        }
+        return bytes.toByteArray();
+    }
+
+    private V decodeValue(byte[] bytes) {
+        return valueSerializer.read(ByteBuffer.wrap(bytes));
+    }
+
+    /* Page cache */
+
+    /* Returns page ID, loading it if needed, and pins it until the operation ends */
+    private Page fetch(int id) {
+        Page page = resident.get(id);
+        if (page == null) {
+            pageBuffer.clear();
+            try {
+                readFully(pageBuffer, (long) id * pageSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read page " + id, e);
+            }
+            pageBuffer.flip();
+            page = decode(id, pageBuffer);
+            admit(page);
+        }
+        pin(page);
+        return page;
+    }
+
+    private void pin(Page page) {
+        page.referenced = true;
+        if (!page.isPinned) {
+            page.isPinned = true;
+            pinned.add(page);
+        }
+    }
+
+    /* Allocates a new, empty page at the end of the file */
+    private Page allocate(boolean leaf) {
+        Page page = new Page(pageCount, leaf);
+        pageCount += 1;
+        headerDirty = true;
+        page.dirty = true;
+        admit(page);
+        pin(page);
+        return page;
+    }
+
+    /* Puts PAGE in the cache, evicting the clock's victim if the cache is full */
+    private void admit(Page page) {
+        resident.put(page.id, page);
+        if (clock.size() < cachePages) {
+            clock.add(page);
+            return;
+        }
+        // Second chance: clear reference bits until an unpinned, unreferenced page turns up
+        for (int scanned = 0; scanned < 2 * clock.size(); scanned++) {
+            Page candidate = clock.get(clockHand);
+            if (!candidate.isPinned) {
+                if (!candidate.referenced) {
+                    evict(candidate);
+                    clock.set(clockHand, page);
+                    clockHand = (clockHand + 1) % clock.size();
+                    return;
+                }
+                candidate.referenced = false;
+            }
+            clockHand = (clockHand + 1) % clock.size();
+        }
+        clock.add(page); // Everything is pinned; overflow until the operation ends
+    }
+
+    /* Its after-image is already in the log, so a dirty page may go to the data file now */
+    private void evict(Page page) {
+        resident.remove(page.id);
+        if (page.dirty) {
+            try {
+                writePage(page);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write page " + page.id, e);
+            }
+        }
+    }
+
+    private void writePage(Page page) throws IOException {
+        forceLog(); // Write-ahead: the log records of this page go to disk first
+        pageBuffer.clear();
+        encode(page, pageBuffer);
+        pageBuffer.clear(); // Always write whole pages, so every page below pageCount is readable
+        writeFully(pageBuffer, (long) page.id * pageSize);
+        page.dirty = false;
+    }
+
+    /* Logs the pages changed by the operation that just finished, then unpins its pages */
+    private void commit(ArrayList<Page> changed) {
+        try {
+            if (!changed.isEmpty() || headerDirty) {
+                int records = changed.size() + (headerDirty ? 1 : 0);
+                int capacity = records * (PAGE_RECORD_BYTES + pageSize) + COMMIT_RECORD_BYTES;
+                if (logBuffer.capacity() < capacity) {
+                    logBuffer = ByteBuffer.allocateDirect(Math.max(capacity, 2 * logBuffer.capacity()));
+                }
+                ByteBuffer out = logBuffer.clear();
+                for (Page page : changed) {
+                    int start = out.position();
+                    out.position(start + PAGE_RECORD_BYTES);
+                    encode(page, out);
+                    finishRecord(out, start, page.id);
+                }
+                if (headerDirty) {
+                    int start = out.position();
+                    out.position(start + PAGE_RECORD_BYTES);
+                    encodeHeader(out);
+                    finishRecord(out, start, 0);
+                    headerDirty = false;
+                }
+                out.putInt(COMMIT).putInt(records);
+                out.flip();
+                while (out.hasRemaining()) {
+                    logBytes += log.write(out, logBytes);
+                }
+                if (syncOnCommit) {
+                    forceLog();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to " + logPath, e);
+        } finally {
+            releasePins();
+        }
+        if (logBytes > DEFAULT_CHECKPOINT_BYTES) {
+            checkpoint();
+        }
+    }
+
+    /* Forces the log to disk unless everything appended to it already is */
+    private void forceLog() throws IOException {
+        if (forcedLogBytes < logBytes) {
+            log.force(false);
+            forcedLogBytes = logBytes;
+        }
+    }
+
+    /* Fills in the header of the page record that starts at START and ends at OUT's position */
+    private void finishRecord(ByteBuffer out, int start, int pageId) {
+        int length = out.position() - start - PAGE_RECORD_BYTES;
+        out.putInt(start, pageId).putInt(start + 4, length)
+                .putInt(start + 8, checksum(pageId, out.slice(start + PAGE_RECORD_BYTES, length)));
+    }
+
+    private void releasePins() {
+        for (Page page : pinned) {
+            page.isPinned = false;
+        }
+        pinned.clear();
+        while (clock.size() > cachePages) { // Give back frames borrowed while everything was pinned
+            Page page = clock.remove(clock.size() - 1);
+            evict(page);
+            clockHand = clockHand % clock.size();
+        }
+    }
+
+    /**
+     * Writes every dirty page and the header to the data file, forces it to disk and
+     * empties the write-ahead log.
+     */
+    public void checkpoint() {
+        try {
+            forceLog();
+            for (Page page : clock) {
+                if (page.dirty) {
+                    writePage(page);
+                }
+            }
+            writeHeader();
+            data.force(true);
+            log.truncate(0);
+            log.force(true);
+            logBytes = 0;
+            forcedLogBytes = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Checkpoint failed", e);
+        }
+    }
+
+    /* Tree operations */
+
+    /* Index of KEY in PAGE, or -(insertion point) - 1 */
+    private static <K extends Comparable<K>> int search(ArrayList<K> keys, K key) {
+        return Collections.binarySearch(keys, key);
+    }
+
+    private static <K extends Comparable<K>> int childIndex(ArrayList<K> keys, K key) {
+        int i = search(keys, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /* Descends to the leaf that covers KEY, pinning the pages passed */
+    private Page findLeaf(K key) {
+        Page page = fetch(rootPage);
+        while (!page.leaf) {
+            page = fetch(page.children[childIndex(page.keys, key)]);
+        }
+        return page;
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        try {
+            Page leaf = findLeaf(key);
+            int i = search(leaf.keys, key);
+            return i >= 0 ? decodeValue(leaf.values.get(i)) : null;
+        } finally {
+            releasePins();
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        try {
+            return search(findLeaf(key).keys, key) >= 0;
+        } finally {
+            releasePins();
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Null keys and values are not allowed");
+        }
+        byte[] keyBytes = serialize(keySerializer, key);
+        byte[] valueBytes = serialize(valueSerializer, value);
+        if (8 + keyBytes.length + valueBytes.length > maxCellBytes) {
+            throw new IllegalArgumentException("Entry of " + (keyBytes.length + valueBytes.length)
+                    + " bytes is too large for " + pageSize + " byte pages");
+        }
+        ArrayList<Page> changed = new ArrayList<>();
+        try {
+            // Descend, remembering the path for splits
+            ArrayList<Page> path = new ArrayList<>();
+            Page page = fetch(rootPage);
+            while (!page.leaf) {
+                path.add(page);
+                page = fetch(page.children[childIndex(page.keys, key)]);
+            }
+            int i = search(page.keys, key);
+            if (i >= 0) {
+                page.bytes += valueBytes.length - page.values.get(i).length;
+                page.values.set(i, valueBytes);
+            } else {
+                int pos = -i - 1;
+                page.keys.add(pos, key);
+                page.keyBytes.add(pos, keyBytes);
+                page.values.add(pos, valueBytes);
+                page.bytes += 8 + keyBytes.length + valueBytes.length;
+                size += 1;
+                headerDirty = true;
+                modCount += 1;
+            }
+            markChanged(page, changed);
+            // Split upwards while pages overflow
+            while (page.bytes > pageSize) {
+                Page right = page.leaf ? splitLeaf(page) : splitInternal(page);
+                markChanged(right, changed);
+                K separator = page.leaf ? right.keys.get(0) : promoted;
+                byte[] separatorBytes = page.leaf ? right.keyBytes.get(0) : promotedBytes;
+                Page parent;
+                if (path.isEmpty()) {
+                    parent = allocate(false);
+                    parent.children[0] = page.id;
+                    rootPage = parent.id;
+                    headerDirty = true;
+                } else {
+                    parent = path.remove(path.size() - 1);
+                }
+                int c = childIndex(parent.keys, separator);
+                parent.keys.add(c, separator);
+                parent.keyBytes.add(c, separatorBytes);
+                insertChild(parent, c + 1, right.id);
+                parent.bytes += 8 + separatorBytes.length;
+                markChanged(parent, changed);
+                page = parent;
+            }
+        } finally {
+            commit(changed);
+        }
+    }
+
+    private void markChanged(Page page, ArrayList<Page> changed) {
+        if (!changed.contains(page)) {
+            changed.add(page);
+        }
+        page.dirty = true;
+    }
+
+    private void insertChild(Page parent, int index, int child) {
+        int count = parent.count() + 1; // Children after the separator was added
+        if (count >= parent.children.length) {
+            parent.children = Arrays.copyOf(parent.children, parent.children.length * 2);
+        }
+        System.arraycopy(parent.children, index, parent.children, index + 1, count - index - 1);
+        parent.children[index] = child;
+    }
+
+    /* Moves the upper half of LEAF, by bytes, to a new right sibling */
+    private Page splitLeaf(Page leaf) {
+        Page right = allocate(true);
+        int half = leaf.bytes / 2;
+        int bytes = NODE_HEADER_BYTES;
+        int split = 0;
+        while (bytes + 8 + leaf.keyBytes.get(split).length + leaf.values.get(split).length <= half) {
+            bytes += 8 + leaf.keyBytes.get(split).length + leaf.values.get(split).length;
+            split += 1;
+        }
+        split = Math.max(1, split);
+        for (int i = split; i < leaf.count(); i++) {
+            right.keys.add(leaf.keys.get(i));
+            right.keyBytes.add(leaf.keyBytes.get(i));
+            right.values.add(leaf.values.get(i));
+            right.bytes += 8 + leaf.keyBytes.get(i).length + leaf.values.get(i).length;
+        }
+        truncate(leaf.keys, split);
+        truncate(leaf.keyBytes, split);
+        truncate(leaf.values, split);
+        leaf.bytes -= right.bytes - NODE_HEADER_BYTES;
+        right.next = leaf.next;
+        leaf.next = right.id;
+        return right;
+    }
+
+    /* Separator pushed up by the last splitInternal() */
+    private K promoted;
+    private byte[] promotedBytes;
+
+    /* Moves the keys and children right of the middle key, by bytes, to a new sibling */
+    private Page splitInternal(Page node) {
+        Page right = allocate(false);
+        int half = node.bytes / 2;
+        int bytes = NODE_HEADER_BYTES;
+        int mid = 0;
+        while (mid < node.count() - 2 && bytes + 8 + node.keyBytes.get(mid).length <= half) {
+            bytes += 8 + node.keyBytes.get(mid).length;
+            mid += 1;
+        }
+        mid = Math.max(1, mid);
+        promoted = node.keys.get(mid);
+        promotedBytes = node.keyBytes.get(mid);
+        right.children = new int[Math.max(8, node.count() - mid + 2)];
+        right.children[0] = node.children[mid + 1];
+        for (int i = mid + 1; i < node.count(); i++) {
+            right.keys.add(node.keys.get(i));
+            right.keyBytes.add(node.keyBytes.get(i));
+            right.children[i - mid] = node.children[i + 1];
+            right.bytes += 8 + node.keyBytes.get(i).length;
+        }
+        node.bytes -= right.bytes - NODE_HEADER_BYTES + 8 + promotedBytes.length;
+        truncate(node.keys, mid);
+        truncate(node.keyBytes, mid);
+        return right;
+    }
+
+    private static <E> void truncate(ArrayList<E> list, int length) {
+        list.subList(length, list.size()).clear();
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        ArrayList<Page> changed = new ArrayList<>();
+        try {
+            Page leaf = findLeaf(key);
+            int i = search(leaf.keys, key);
+            if (i < 0) {
+                return null;
+            }
+            byte[] value = leaf.values.get(i);
+            leaf.keys.remove(i);
+            leaf.bytes -= 8 + leaf.keyBytes.remove(i).length + leaf.values.remove(i).length;
+            markChanged(leaf, changed);
+            size -= 1;
+            headerDirty = true;
+            modCount += 1;
+            return decodeValue(value);
+        } finally {
+            commit(changed);
+        }
+    }
+
+    /** Returns the number of mappings, saturated at Integer.MAX_VALUE; see longSize(). */
+    @Override
+    public int size() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /** Returns the number of mappings. */
+    public long longSize() {
+        return size;
+    }
+
+    /** Removes every mapping and shrinks the file back to an empty tree. */
+    @Override
+    public void clear() {
+        try {
+            checkpoint();
+            resident.clear();
+            clock.clear();
+            clockHand = 0;
+            initialize();
+            modCount += 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear", e);
+        }
+    }
+
+    /** Checkpoints and closes the underlying files. */
+    @Override
+    public void close() throws IOException {
+        try {
+            checkpoint();
+        } finally {
+            data.close();
+            log.close();
+        }
+    }
+
+    /* Cursors */
+
+    /**
+     * Returns the mappings whose keys lie between LO and HI, inclusive, in ascending
+     * order. Each iteration descends once to LO and then follows the leaf chain,
+     * decoding values as it goes.
+     */
+    public Iterable<Map.Entry<K, V>> range(K lo, K hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        return () -> new Cursor(lo, hi);
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        Cursor cursor = new Cursor(null, null);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return cursor.nextKey();
+            }
+        };
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return DiskBPlusTree.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return DiskBPlusTree.this.size();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                return o != null && containsKey((K) o);
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new Cursor(null, null);
+            }
+
+            @Override
+            public int size() {
+                return DiskBPlusTree.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                Cursor cursor = new Cursor(null, null);
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return cursor.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return cursor.next().getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return DiskBPlusTree.this.size();
+            }
+        };
+    }
+
+    /*
+     * Walks the leaf chain from LO (or the first key) up to HI (or the last key). The
+     * cursor holds a page id, not a Page: once its pins are released the page may be
+     * evicted and reloaded, and in-place value updates, which don't bump modCount, go
+     * to the reloaded copy. Each step therefore fetches the leaf again, which is a cache
+     * hit unless it was evicted in between.
+     */
+    private class Cursor implements Iterator<Map.Entry<K, V>> {
+        private int leafId; // NO_PAGE once the chain is exhausted
+        private int index;
+        private final K hi;
+        private final int expectedModCount = modCount;
+
+        Cursor(K lo, K hi) {
+            this.hi = hi;
+            try {
+                Page leaf;
+                if (lo == null) {
+                    leaf = fetch(rootPage);
+                    while (!leaf.leaf) {
+                        leaf = fetch(leaf.children[0]);
+                    }
+                    index = 0;
+                } else {
+                    leaf = findLeaf(lo);
+                    int i = search(leaf.keys, lo);
+                    index = i >= 0 ? i : -i - 1;
+                }
+                skipExhaustedLeaves(leaf);
+            } finally {
+                releasePins();
+            }
+        }
+
+        /* Moves to the next non-empty leaf; empty leaves are left behind by lazy deletion */
+        private void skipExhaustedLeaves(Page leaf) {
+            while (leaf != null && index >= leaf.count()) {
+                leaf = leaf.next == NO_PAGE ? null : fetch(leaf.next);
+                index = 0;
+            }
+            leafId = leaf == null ? NO_PAGE : leaf.id;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (leafId == NO_PAGE) {
+                return false;
+            }
+            if (hi == null) {
+                return true;
+            }
+            try {
+                return fetch(leafId).keys.get(index).compareTo(hi) <= 0;
+            } finally {
+                releasePins();
+            }
+        }
+
+        private void advance() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        K nextKey() {
+            advance();
+            try {
+                Page leaf = fetch(leafId);
+                K key = leaf.keys.get(index);
+                step(leaf);
+                return key;
+            } finally {
+                releasePins();
+            }
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            advance();
+            try {
+                Page leaf = fetch(leafId);
+                Map.Entry<K, V> entry = Map.entry(leaf.keys.get(index), decodeValue(leaf.values.get(index)));
+                step(leaf);
+                return entry;
+            } finally {
+                releasePins();
+            }
+        }
+
+        private void step(Page leaf) {
+            index += 1;
+            skipExhaustedLeaves(leaf);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package DataStructure.Map;
+
+import java.util.Arrays;
+
+/**
+ *  An open-addressing hash map from int to int that never boxes.
+ *
+ *  Keys and values live in two parallel int arrays of power-of-two length. Collisions are
+ *  resolved with linear probing and remove() uses backward-shift deletion, so there are no
+ *  tombstones. Slot 0 of the key array doubles as the "empty" marker, so the key 0 itself
+ *  is stored out of line in hasZeroKey/zeroValue.
+ */
+public class IntIntMap {
+    /* Default value */
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /* Instance Variables */
+    private int[] keys; // 0 marks an empty slot
+    private int[] values;
+    private int mask; // capacity - 1
+    private int numOfElements; // Including the zero key
+    private int threshold;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    /** Constructors */
+    public IntIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * IntIntMap constructor that sizes the table so that EXPECTEDSIZE keys fit
+     * without a resize.
+     *
+     * @param expectedSize number of keys expected
+     */
+    public IntIntMap(int expectedSize) {
+        allocate(tableSizeFor((int) Math.min(expectedSize / LOAD_FACTOR + 1, MAXIMUM_CAPACITY)));
+        numOfElements = 0;
+    }
+
+    /* Returns the smallest power of two >= n */
+    static int tableSizeFor(int n) {
+        if (n <= 2) {
+            return 2;
+        }
+        if (n >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /* Spreads the bits of an int key over the whole word */
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity * LOAD_FACTOR, capacity - 1);
+    }
+
+    /* Returns the slot holding KEY (non-zero), or -1 */
+    private int findSlot(int key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            int slotKey = keys[slot];
+            if (slotKey == key) {
+                return slot;
+            }
+            if (slotKey == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Associates VALUE with KEY, replacing any previous value. */
+    public void put(int key, int value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                numOfElements += 1;
+            }
+            zeroValue = value;
+            return;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        numOfElements += 1;
+        if (numOfElements > threshold) {
+            resize();
+        }
+    }
+
+    /** Returns the value mapped to KEY, or DEFAULTVALUE if there is none. */
+    public int get(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = findSlot(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /** Returns whether KEY is mapped. */
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+    }
+
+    /** Removes the mapping for KEY, returning whether there was one. */
+    public boolean remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            numOfElements -= 1;
+            return true;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return false;
+        }
+        // Backward-shift deletion: move later cluster members whose home is not
+        // strictly between the hole and their current slot into the hole
+        int next = (slot + 1) & mask;
+        while (keys[next] != 0) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = 0;
+        numOfElements -= 1;
+        return true;
+    }
+
+    /** Returns the number of mappings. */
+    public int size() {
+        return numOfElements;
+    }
+
+    /** Returns whether there are no mappings. */
+    public boolean isEmpty() {
+        return numOfElements == 0;
+    }
+
+    /** Removes every mapping. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZeroKey = false;
+        numOfElements = 0;
+    }
+
+    /** Returns a new array holding every key, in table order. */
+    public int[] keys() {
+        int[] result = new int[numOfElements];
+        int i = 0;
+        if (hasZeroKey) {
+            result[i++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    /* Doubles the table */
+    private void resize() {
+        if (mask + 1 == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("IntIntMap is full");
+        }
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate((mask + 1) * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int slot = mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
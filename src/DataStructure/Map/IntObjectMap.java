@@ -0,0 +1,193 @@
+package DataStructure.Map;
+
+import java.util.Arrays;
+
+/**
+ *  An open-addressing hash map from int to V that never boxes its keys.
+ *
+ *  Same layout as IntIntMap: linear probing over a power-of-two int key array with a
+ *  parallel value array, backward-shift deletion, and the key 0 stored out of line.
+ *  Null values are not allowed, since get() uses null to report a missing key.
+ */
+public class IntObjectMap<V> {
+    /* Default value */
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /* Instance Variables */
+    private int[] keys; // 0 marks an empty slot
+    private Object[] values;
+    private int mask; // capacity - 1
+    private int numOfElements; // Including the zero key
+    private int threshold;
+    private V zeroValue; // Non-null iff the key 0 is present
+
+    /** Constructors */
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * IntObjectMap constructor that sizes the table so that EXPECTEDSIZE keys fit
+     * without a resize.
+     *
+     * @param expectedSize number of keys expected
+     */
+    public IntObjectMap(int expectedSize) {
+        allocate(IntIntMap.tableSizeFor((int) Math.min(expectedSize / LOAD_FACTOR + 1, MAXIMUM_CAPACITY)));
+        numOfElements = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity * LOAD_FACTOR, capacity - 1);
+    }
+
+    /* Returns the slot holding KEY (non-zero), or -1 */
+    private int findSlot(int key) {
+        int slot = IntIntMap.mix(key) & mask;
+        while (true) {
+            int slotKey = keys[slot];
+            if (slotKey == key) {
+                return slot;
+            }
+            if (slotKey == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Associates VALUE with KEY, replacing any previous value. */
+    public void put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+        if (key == 0) {
+            if (zeroValue == null) {
+                numOfElements += 1;
+            }
+            zeroValue = value;
+            return;
+        }
+        int slot = IntIntMap.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        numOfElements += 1;
+        if (numOfElements > threshold) {
+            resize();
+        }
+    }
+
+    /** Returns the value mapped to KEY, or null if there is none. */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int slot = findSlot(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /** Returns whether KEY is mapped. */
+    public boolean containsKey(int key) {
+        return key == 0 ? zeroValue != null : findSlot(key) >= 0;
+    }
+
+    /** Removes the mapping for KEY, returning the old value or null. */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == 0) {
+            V old = zeroValue;
+            if (old != null) {
+                zeroValue = null;
+                numOfElements -= 1;
+            }
+            return old;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        V old = (V) values[slot];
+        // Backward-shift deletion, see IntIntMap.remove
+        int next = (slot + 1) & mask;
+        while (keys[next] != 0) {
+            int home = IntIntMap.mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = 0;
+        values[slot] = null;
+        numOfElements -= 1;
+        return old;
+    }
+
+    /** Returns the number of mappings. */
+    public int size() {
+        return numOfElements;
+    }
+
+    /** Returns whether there are no mappings. */
+    public boolean isEmpty() {
+        return numOfElements == 0;
+    }
+
+    /** Removes every mapping. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        zeroValue = null;
+        numOfElements = 0;
+    }
+
+    /** Returns a new array holding every key, in table order. */
+    public int[] keys() {
+        int[] result = new int[numOfElements];
+        int i = 0;
+        if (zeroValue != null) {
+            result[i++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    /* Doubles the table */
+    private void resize() {
+        if (mask + 1 == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("IntObjectMap is full");
+        }
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate((mask + 1) * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int slot = IntIntMap.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
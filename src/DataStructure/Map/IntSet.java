@@ -0,0 +1,174 @@
+package DataStructure.Map;
+
+import java.util.Arrays;
+
+/**
+ *  An open-addressing hash set of ints that never boxes.
+ *
+ *  Same layout as IntIntMap without the value array: linear probing over a power-of-two
+ *  int array, backward-shift deletion, and the element 0 tracked out of line.
+ */
+public class IntSet {
+    /* Default value */
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /* Instance Variables */
+    private int[] keys; // 0 marks an empty slot
+    private int mask; // capacity - 1
+    private int numOfElements; // Including zero
+    private int threshold;
+    private boolean hasZero;
+
+    /** Constructors */
+    public IntSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * IntSet constructor that sizes the table so that EXPECTEDSIZE elements fit
+     * without a resize.
+     *
+     * @param expectedSize number of elements expected
+     */
+    public IntSet(int expectedSize) {
+        allocate(IntIntMap.tableSizeFor((int) Math.min(expectedSize / LOAD_FACTOR + 1, MAXIMUM_CAPACITY)));
+        numOfElements = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity * LOAD_FACTOR, capacity - 1);
+    }
+
+    /* Returns the slot holding KEY (non-zero), or -1 */
+    private int findSlot(int key) {
+        int slot = IntIntMap.mix(key) & mask;
+        while (true) {
+            int slotKey = keys[slot];
+            if (slotKey == key) {
+                return slot;
+            }
+            if (slotKey == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Adds KEY, returning false if it was already present. */
+    public boolean add(int key) {
+        if (key == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            numOfElements += 1;
+            return true;
+        }
+        int slot = IntIntMap.mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        numOfElements += 1;
+        if (numOfElements > threshold) {
+            resize();
+        }
+        return true;
+    }
+
+    /** Returns whether KEY is present. */
+    public boolean contains(int key) {
+        return key == 0 ? hasZero : findSlot(key) >= 0;
+    }
+
+    /** Removes KEY, returning whether it was present. */
+    public boolean remove(int key) {
+        if (key == 0) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            numOfElements -= 1;
+            return true;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return false;
+        }
+        // Backward-shift deletion, see IntIntMap.remove
+        int next = (slot + 1) & mask;
+        while (keys[next] != 0) {
+            int home = IntIntMap.mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = 0;
+        numOfElements -= 1;
+        return true;
+    }
+
+    /** Returns the number of elements. */
+    public int size() {
+        return numOfElements;
+    }
+
+    /** Returns whether the set is empty. */
+    public boolean isEmpty() {
+        return numOfElements == 0;
+    }
+
+    /** Removes every element. */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        numOfElements = 0;
+    }
+
+    /** Returns a new array holding every element, in table order. */
+    public int[] toArray() {
+        int[] result = new int[numOfElements];
+        int i = 0;
+        if (hasZero) {
+            result[i++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /* Doubles the table */
+    private void resize() {
+        if (mask + 1 == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("IntSet is full");
+        }
+        int[] oldKeys = keys;
+        allocate((mask + 1) * 2);
+        for (int key : oldKeys) {
+            if (key != 0) {
+                int slot = IntIntMap.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+}
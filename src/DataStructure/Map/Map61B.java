@@ -1,6 +1,9 @@
 package DataStructure.Map;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /* Your implementation BSTMap should implement this interface. To do so,
  * append "implements Map61B<K, V>" to the end of your "public class..."
@@ -31,9 +34,53 @@ public interface Map61B<K, V> extends Iterable<K> {
      * If you don't implement this, throw an UnsupportedOperationException. */
     Set<K> keySet();
 
+    /** Returns a Set view of the key-value mappings contained in this map. The view is
+     * backed by the map, so callers can read both key and value of every mapping
+     * without a second lookup. */
+    Set<Map.Entry<K, V>> entrySet();
+
+    /** Returns a Collection view of the values contained in this map. The view is
+     * backed by the map. */
+    Collection<V> values();
+
     /** Removes the mapping for the specified key from this map if present,
      * or null if there is no such mapping.
      * Not required for Lab 7. If you don't implement this, throw an
      * UnsupportedOperationException. */
     V remove(K key);
+
+    /** Copies every mapping of OTHER into this map, as if by put(). Implementations
+     *  may override this to size their storage once for the whole batch. */
+    default void putAll(Map61B<? extends K, ? extends V> other) {
+        for (Map.Entry<? extends K, ? extends V> entry : other.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /** Looks up every key of KEYS, storing the value of KEYS[i], or null, in OUT[i]. */
+    default void getAll(K[] keys, V[] out) {
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("Output array is shorter than the key array");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            out[i] = get(keys[i]);
+        }
+    }
+
+    /** Removes the mapping of every key in KEYS that is present, and returns how many
+     *  mappings were removed. */
+    default int removeAll(Iterable<? extends K> keys) {
+        int before = size();
+        for (K key : keys) {
+            remove(key);
+        }
+        return before - size();
+    }
+
+    /** Puts every entry of ENTRIES, as if by put() in encounter order, so the last
+     *  entry for a key wins. ENTRIES may be a parallel stream; implementations may
+     *  override this to build the whole batch at once, possibly on several threads. */
+    default void bulkLoad(Stream<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        entries.forEachOrdered(entry -> put(entry.getKey(), entry.getValue()));
+    }
 }
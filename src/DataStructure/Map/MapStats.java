@@ -0,0 +1,426 @@
+package DataStructure.Map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ *  Runtime statistics of one map, collected only after enableStats() is called on it.
+ *
+ *  A map without statistics pays a single null check per operation. Once enabled, each
+ *  get(), put() and remove() records its latency and its probe length: the length of
+ *  the chain searched in a hash map or list map, or the depth of the search path in a
+ *  tree map. Hash maps also record every resize with its duration, and a sample of the
+ *  load factor after each resize and each stats() call. stats() itself refreshes the
+ *  structural figures, the bucket length distribution of a hash map and the height of a
+ *  tree map, which take a full scan.
+ *
+ *  The same figures are published to Java Flight Recorder. Every resize emits a
+ *  DataStructure.Map.Resize event, an operation slower than the slow operation threshold
+ *  emits DataStructure.Map.SlowOperation, and while a recording runs the counters of
+ *  every live MapStats are emitted periodically as DataStructure.Map.Statistics events.
+ *
+ *  Like the maps it belongs to, a MapStats is not thread-safe. The periodic JFR event
+ *  reads the counters without synchronization, so its figures may lag slightly.
+ */
+public final class MapStats {
+    /* Default value */
+    private static final long DEFAULT_SLOW_OPERATION_NANOS = 100_000;
+    private static final int LOAD_SAMPLES = 64;
+
+    /* MapStats of maps that are still reachable, for the periodic JFR event */
+    private static final Set<MapStats> LIVE = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        FlightRecorder.addPeriodicEvent(StatisticsEvent.class, MapStats::emitStatistics);
+    }
+
+    /** The map operations that are timed. */
+    public enum Operation { GET, PUT, REMOVE }
+
+    /** The load of a hash table at one point in time. */
+    public record LoadSample(long nanoTime, int size, int capacity) {
+        public double loadFactor() {
+            return capacity == 0 ? 0 : (double) size / capacity;
+        }
+    }
+
+    /**
+     * A histogram of non-negative values over 64 buckets. A linear histogram counts the
+     * values 0 to 62 exactly and lumps everything larger into its last bucket. A
+     * logarithmic one puts 0 in bucket 0 and [2^(i-1), 2^i) in bucket i.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final long[] counts = new long[BUCKETS];
+        private final boolean logarithmic;
+        private long count;
+        private long sum;
+        private long max;
+
+        Histogram(boolean logarithmic) {
+            this.logarithmic = logarithmic;
+        }
+
+        void record(long value) {
+            int bucket = logarithmic
+                    ? 64 - Long.numberOfLeadingZeros(value)
+                    : (int) Math.min(value, BUCKETS - 1);
+            counts[Math.min(bucket, BUCKETS - 1)] += 1;
+            count += 1;
+            sum += value;
+            if (value > max) {
+                max = value;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(counts, 0);
+            count = 0;
+            sum = 0;
+            max = 0;
+        }
+
+        /** Returns the number of recorded values. */
+        public long count() {
+            return count;
+        }
+
+        /** Returns the largest recorded value, or 0 if there is none. */
+        public long max() {
+            return max;
+        }
+
+        /** Returns the mean of the recorded values, or 0 if there is none. */
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /** Returns the number of values that fell in BUCKET. */
+        public long bucketCount(int bucket) {
+            return counts[bucket];
+        }
+
+        /** Returns the smallest value that falls in BUCKET. */
+        public long bucketLow(int bucket) {
+            return logarithmic && bucket > 0 ? 1L << (bucket - 1) : bucket;
+        }
+
+        /**
+         * Returns an upper bound on the Q-quantile, for Q in [0, 1]: the largest value
+         * of the bucket holding it, capped at max().
+         *
+         * @param q the quantile, 0.99 for the 99th percentile
+         */
+        public long percentile(double q) {
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantile must be in [0, 1]");
+            }
+            long rank = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS - 1; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(bucketLow(i + 1) - 1, max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(bucketLow(i));
+                if (i == BUCKETS - 1 || bucketLow(i + 1) - 1 > bucketLow(i)) {
+                    sb.append(i == BUCKETS - 1 ? "+" : "-" + (bucketLow(i + 1) - 1));
+                }
+                sb.append(": ").append(counts[i]);
+            }
+            return sb.append('}').toString();
+        }
+    }
+
+    /* Instance Variables */
+    private final String mapName;
+    private final Histogram probeLengths = new Histogram(false);
+    private final Histogram[] latencies = new Histogram[Operation.values().length];
+    private final Histogram bucketLengths = new Histogram(false);
+    private final LoadSample[] loadSamples = new LoadSample[LOAD_SAMPLES]; // Ring buffer
+    private long loadSampleCount;
+    private long resizes;
+    private long resizeNanos;
+    private long maxResizeNanos;
+    private int height = -1; // -1 until a tree map refreshes it
+    private long slowOperationNanos = DEFAULT_SLOW_OPERATION_NANOS;
+
+    /** Constructors */
+    MapStats(Object map) {
+        this.mapName = map.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(map));
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram(true);
+        }
+        LIVE.add(this);
+    }
+
+    /* Recording, called by the maps */
+
+    void recordOperation(Operation op, long nanos, int probes) {
+        latencies[op.ordinal()].record(nanos);
+        probeLengths.record(probes);
+        if (nanos >= slowOperationNanos) {
+            SlowOperationEvent event = new SlowOperationEvent();
+            if (event.shouldCommit()) {
+                event.map = mapName;
+                event.operation = op.name();
+                event.latency = nanos;
+                event.probeLength = probes;
+                event.commit();
+            }
+        }
+    }
+
+    void recordResize(long nanos, int oldCapacity, int newCapacity, int size) {
+        resizes += 1;
+        resizeNanos += nanos;
+        maxResizeNanos = Math.max(maxResizeNanos, nanos);
+        sampleLoad(size, newCapacity);
+        ResizeEvent event = new ResizeEvent();
+        if (event.shouldCommit()) {
+            event.map = mapName;
+            event.resizeTime = nanos;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    void sampleLoad(int size, int capacity) {
+        loadSamples[(int) (loadSampleCount % LOAD_SAMPLES)] = new LoadSample(System.nanoTime(), size, capacity);
+        loadSampleCount += 1;
+    }
+
+    /* Clears the bucket length histogram before a hash map refills it */
+    Histogram resetBucketLengths() {
+        bucketLengths.clear();
+        return bucketLengths;
+    }
+
+    void setHeight(int height) {
+        this.height = height;
+    }
+
+    /* Reading */
+
+    /** Returns the probe lengths of all recorded operations. */
+    public Histogram probeLengths() {
+        return probeLengths;
+    }
+
+    /** Returns the latencies of OP in nanoseconds. */
+    public Histogram latency(Operation op) {
+        return latencies[op.ordinal()];
+    }
+
+    /** Returns the chain length of every bucket of a hash map, as of the last stats() call. */
+    public Histogram bucketLengths() {
+        return bucketLengths;
+    }
+
+    /** Returns the height of a tree map as of the last stats() call, or -1 for other maps. */
+    public int height() {
+        return height;
+    }
+
+    /** Returns the number of times the table was resized. */
+    public long resizeCount() {
+        return resizes;
+    }
+
+    /** Returns the total time spent resizing, in nanoseconds. */
+    public long resizeNanos() {
+        return resizeNanos;
+    }
+
+    /** Returns the longest single resize, in nanoseconds. */
+    public long maxResizeNanos() {
+        return maxResizeNanos;
+    }
+
+    /** Returns up to the last 64 load samples, oldest first. */
+    public List<LoadSample> loadFactorHistory() {
+        int n = (int) Math.min(loadSampleCount, LOAD_SAMPLES);
+        List<LoadSample> history = new ArrayList<>(n);
+        for (long i = loadSampleCount - n; i < loadSampleCount; i++) {
+            history.add(loadSamples[(int) (i % LOAD_SAMPLES)]);
+        }
+        return history;
+    }
+
+    /**
+     * Sets the latency from which an operation emits a JFR SlowOperation event.
+     *
+     * @param nanos threshold in nanoseconds
+     */
+    public void setSlowOperationThreshold(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        slowOperationNanos = nanos;
+    }
+
+    /** Discards everything recorded so far. */
+    public void reset() {
+        probeLengths.clear();
+        for (Histogram latency : latencies) {
+            latency.clear();
+        }
+        bucketLengths.clear();
+        Arrays.fill(loadSamples, null);
+        loadSampleCount = 0;
+        resizes = 0;
+        resizeNanos = 0;
+        maxResizeNanos = 0;
+        height = -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(mapName).append('\n');
+        sb.append("  probe lengths: mean ").append(String.format("%.2f", probeLengths.mean()))
+                .append(", max ").append(probeLengths.max()).append(' ').append(probeLengths).append('\n');
+        for (Operation op : Operation.values()) {
+            Histogram h = latency(op);
+            if (h.count() > 0) {
+                sb.append("  ").append(op).append(": ").append(h.count()).append(" ops, p50 ")
+                        .append(h.percentile(0.5)).append(" ns, p99 ").append(h.percentile(0.99))
+                        .append(" ns, max ").append(h.max()).append(" ns\n");
+            }
+        }
+        if (resizes > 0) {
+            sb.append("  resizes: ").append(resizes).append(", total ").append(resizeNanos / 1000)
+                    .append(" us, max ").append(maxResizeNanos / 1000).append(" us\n");
+        }
+        if (loadSampleCount > 0) {
+            LoadSample last = loadSamples[(int) ((loadSampleCount - 1) % LOAD_SAMPLES)];
+            sb.append("  load factor: ").append(String.format("%.3f", last.loadFactor()))
+                    .append(" (").append(last.size()).append('/').append(last.capacity()).append(")\n");
+        }
+        if (bucketLengths.count() > 0) {
+            sb.append("  bucket lengths: ").append(bucketLengths).append('\n');
+        }
+        if (height >= 0) {
+            sb.append("  height: ").append(height).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /* Periodic JFR hook: one Statistics event per live MapStats */
+    private static void emitStatistics() {
+        List<MapStats> live;
+        synchronized (LIVE) {
+            live = new ArrayList<>(LIVE);
+        }
+        for (MapStats stats : live) {
+            StatisticsEvent event = new StatisticsEvent();
+            event.map = stats.mapName;
+            long operations = 0;
+            for (Histogram latency : stats.latencies) {
+                operations += latency.count();
+            }
+            event.operations = operations;
+            event.meanProbeLength = stats.probeLengths.mean();
+            event.maxProbeLength = stats.probeLengths.max();
+            event.resizes = stats.resizes;
+            event.resizeTime = stats.resizeNanos;
+            event.loadFactor = stats.loadSampleCount == 0 ? Double.NaN
+                    : stats.loadSamples[(int) ((stats.loadSampleCount - 1) % LOAD_SAMPLES)].loadFactor();
+            event.height = stats.height;
+            event.commit();
+        }
+    }
+
+    /* JFR events */
+
+    @Name("DataStructure.Map.Resize")
+    @Label("Map Resize")
+    @Category({"Data Structures", "Map"})
+    @Description("A hash map grew its table")
+    private static final class ResizeEvent extends Event {
+        @Label("Map")
+        String map;
+        @Label("Resize Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long resizeTime;
+        @Label("Old Capacity")
+        int oldCapacity;
+        @Label("New Capacity")
+        int newCapacity;
+        @Label("Size")
+        int size;
+    }
+
+    @Name("DataStructure.Map.SlowOperation")
+    @Label("Slow Map Operation")
+    @Category({"Data Structures", "Map"})
+    @Description("A map operation that took longer than the map's slow operation threshold")
+    private static final class SlowOperationEvent extends Event {
+        @Label("Map")
+        String map;
+        @Label("Operation")
+        String operation;
+        @Label("Latency")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+        @Label("Probe Length")
+        int probeLength;
+    }
+
+    @Name("DataStructure.Map.Statistics")
+    @Label("Map Statistics")
+    @Category({"Data Structures", "Map"})
+    @Description("Counters of a map with statistics enabled")
+    @Period("10 s")
+    @StackTrace(false)
+    private static final class StatisticsEvent extends Event {
+        @Label("Map")
+        String map;
+        @Label("Operations")
+        long operations;
+        @Label("Mean Probe Length")
+        double meanProbeLength;
+        @Label("Max Probe Length")
+        long maxProbeLength;
+        @Label("Resizes")
+        long resizes;
+        @Label("Resize Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long resizeTime;
+        @Label("Load Factor")
+        double loadFactor;
+        @Label("Height")
+        int height;
+    }
+}
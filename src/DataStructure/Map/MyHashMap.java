@@ -1,11 +1,62 @@
 package DataStructure.Map;
 
+import DataStructure.Serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 
 /**
  *  A hash table-backed Map implementation.
  *
+ *  Buckets are created lazily, the first time a key hashes to them. Bucket indexes
+ *  come from hashCode() xor a per-instance random seed, passed through a secondary
+ *  mixing step, so poor low-order bits in hashCode() are spread out and distinct hash
+ *  codes land in different buckets from one map to the next. The seed cannot separate
+ *  keys whose hashCode() values are equal, such as "Aa" and "BB": those collide in
+ *  every instance. TreeifyingHashMap's tree buckets are what bound the cost of such
+ *  full-hash collisions.
+ *
+ *  In incremental resize mode the table is not rehashed in one go. When the load
+ *  factor is exceeded a table of twice the size is allocated next to the old one, and
+ *  every put() and remove() then migrates a bounded number of old buckets into it, in
+ *  the manner of Redis. Until migration finishes, a key lives in its old bucket if that
+ *  bucket has not been migrated yet and in the new table otherwise, so lookups consult
+ *  exactly one bucket. get() never migrates, so iterators stay valid across reads.
+ *
+ *  writeSnapshot() saves the map to a file, and loadSnapshot() memory-maps such a file
+ *  back in without decoding it. While a snapshot is attached, get() and containsKey()
+ *  fall through to the mapped file's own hash table and decode only the entry they
+ *  hit. put() and remove() retire the snapshot's copy of the key, and iterating over
+ *  the map first moves the remaining snapshot entries onto the heap. The file is
+ *  mapped in 1 GiB segments, and the writer pads the arena so that no record straddles
+ *  a segment boundary, so snapshots are not limited to the 2 GiB of a single mapping.
+ *
+ *  putAll() and bulkLoad() size the table once for the whole batch instead of
+ *  doubling it repeatedly. bulkLoad() also hashes the batch in parallel, groups it by
+ *  runs of adjacent buckets with a counting sort, and fills the groups on separate
+ *  threads. Groups never share a bucket, so no locking is needed, and each thread
+ *  works on one small stretch of the table at a time.
+ *
+ *  enableStats() turns on MapStats recording of chain lengths, latencies, resizes and
+ *  load factor, and stats() adds the current bucket length distribution, which makes
+ *  degenerate hashing visible. Without it, operations skip the bookkeeping entirely.
+ *
  *  Assumes null keys will never be inserted, and does not resize down upon remove().
  *  @author Xianmin Mo
  */
@@ -13,12 +64,27 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
     /* Default value */
     private static final int DEFAULT_CAPACITY = 16;
     private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    /* Incremental resize: non-empty old buckets moved per put/remove */
+    private static final int MIGRATE_STEP = 4;
+    /* Incremental resize: empty old buckets skipped per put/remove */
+    private static final int MIGRATE_EMPTY_VISITS = 10 * MIGRATE_STEP;
+    /* Snapshot file format: header, then a slot array, then the key/value arena */
+    private static final int SNAPSHOT_MAGIC = 0x4D484D53; // "MHMS"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 24;
+    private static final int SNAPSHOT_SLOT_BYTES = 12;
+    private static final int SNAPSHOT_SEGMENT_SHIFT = 30;
+    /* bulkLoad(): batches smaller than this are put() one by one */
+    private static final int BULK_PARALLEL_THRESHOLD = 1 << 13;
+    /* bulkLoad(): adjacent buckets filled together by one thread */
+    private static final int BULK_BLOCK_BUCKETS = 1 << 10;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
 
     /**
      * Protected helper class to store key/value pairs
      * The protected qualifier allows subclass access
      */
-    protected class Node {
+    protected class Node implements Map.Entry<K, V> {
         K key;
         V value;
 
@@ -26,6 +92,39 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
             key = k;
             value = v;
         }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V v) {
+            V old = value;
+            value = v;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
     }
 
     /* Instance Variables */
@@ -34,7 +133,14 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
     private int capacity;
     private int numOfElements;
     private double loadFactor;
-    private Set<K> keyset;
+    private int modCount; // Structural modifications, for fail-fast iterators
+    private final boolean incrementalResize;
+    private Collection<Node>[] oldBuckets; // Table being migrated from, null when not resizing
+    private int oldCapacity;
+    private int migrateIndex; // Old buckets below this index have been migrated
+    private final int hashSeed;
+    private Snapshot snapshot; // Entries still served from a mapped snapshot file, or null
+    private MapStats stats; // Null unless enableStats() was called
 
     /** Constructors */
     public MyHashMap() {
@@ -52,16 +158,28 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * @param initialCapacity initial size of backing array
      * @param loadFactor maximum load factor
      */
-    @SuppressWarnings("unchecked") // It is safe
     public MyHashMap(int initialCapacity, double loadFactor) {
+        this(initialCapacity, loadFactor, false);
+    }
+
+    /**
+     * MyHashMap constructor that optionally spreads each resize over subsequent
+     * put() and remove() calls instead of rehashing everything at once.
+     *
+     * @param initialCapacity initial size of backing array
+     * @param loadFactor maximum load factor
+     * @param incrementalResize whether to migrate buckets incrementally on resize
+     */
+    @SuppressWarnings("unchecked") // It is safe
+    public MyHashMap(int initialCapacity, double loadFactor, boolean incrementalResize) {
         buckets = new Collection[initialCapacity];
-        for (int i = 0; i < initialCapacity; i++) {
-            buckets[i] = createBucket();
-        }
         this.capacity = initialCapacity;
         this.numOfElements = 0;
         this.loadFactor = loadFactor;
-        this.keyset = new HashSet<>();
+        this.modCount = 0;
+        this.incrementalResize = incrementalResize;
+        this.oldBuckets = null;
+        this.hashSeed = ThreadLocalRandom.current().nextInt();
     }
 
     /**
@@ -88,9 +206,62 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         return new LinkedList<>();
     }
 
+    /**
+     * Returns the node in BUCKET whose key equals KEY, or null.
+     *
+     * Override this method together with createBucket() when the bucket type
+     * can search faster than a linear scan.
+     */
+    protected Node findNode(Collection<Node> bucket, Object key) {
+        for (Node node : bucket) {
+            if (node.key.equals(key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /* Seeds hashCode() and mixes it so that every bit affects the bucket index */
+    private int hash(Object key) {
+        int h = (key.hashCode() ^ hashSeed) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
 
-    private int getIndex(K key) {
-        return Math.floorMod(key.hashCode(), capacity);
+    private int getIndex(Object key) {
+        return Math.floorMod(hash(key), capacity);
+    }
+
+    /* Returns the bucket KEY belongs in right now, or null if it was never created */
+    private Collection<Node> bucketOf(Object key) {
+        int hash = hash(key);
+        if (oldBuckets != null) {
+            int oldIndex = Math.floorMod(hash, oldCapacity);
+            if (oldIndex >= migrateIndex) {
+                return oldBuckets[oldIndex];
+            }
+        }
+        return buckets[Math.floorMod(hash, capacity)];
+    }
+
+    /* Like bucketOf, but creates the bucket if needed */
+    private Collection<Node> bucketForInsert(Object key) {
+        int hash = hash(key);
+        if (oldBuckets != null) {
+            int oldIndex = Math.floorMod(hash, oldCapacity);
+            if (oldIndex >= migrateIndex) {
+                return bucketAt(oldBuckets, oldIndex);
+            }
+        }
+        return bucketAt(buckets, Math.floorMod(hash, capacity));
+    }
+
+    private Collection<Node> bucketAt(Collection<Node>[] table, int index) {
+        Collection<Node> bucket = table[index];
+        if (bucket == null) {
+            bucket = createBucket();
+            table[index] = bucket;
+        }
+        return bucket;
     }
 
     /* Insert or update a key-value pair */
@@ -99,17 +270,31 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         if (key == null) {
             throw new IllegalArgumentException("Null keys are not allowed");
         }
-        int index = getIndex(key);
-        Collection<Node> bucket = buckets[index];
-        for (Node node : bucket) {
-            if (node.key.equals(key)) {
-                node.value = value;
-                return;
-            }
+        MapStats s = stats;
+        if (s == null) {
+            insert(key, value);
+            return;
+        }
+        int probes = chainLength(key);
+        long start = System.nanoTime();
+        insert(key, value);
+        s.recordOperation(MapStats.Operation.PUT, System.nanoTime() - start, probes);
+    }
+
+    private void insert(K key, V value) {
+        migrateStep();
+        Collection<Node> bucket = bucketForInsert(key);
+        Node existing = findNode(bucket, key);
+        if (existing != null) {
+            existing.value = value;
+            return;
+        }
+        if (snapshot != null) {
+            snapshot.consume(key); // The heap copy supersedes the snapshot's
         }
         bucket.add(new Node(key, value));
         numOfElements += 1;
-        keyset.add(key);
+        modCount += 1;
 
         // check load factor and resize if necessary
         if (numOfElements > loadFactor * capacity) {
@@ -119,18 +304,43 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
     }
 
     /* Resize and rehash the table */
+    @SuppressWarnings("unchecked") // It is safe
     private void resize() {
+        if (oldBuckets != null) {
+            // Still migrating from the previous resize; finish it first
+            while (oldBuckets != null) {
+                migrateStep();
+            }
+        }
+        long start = stats == null ? 0 : System.nanoTime();
+        int previousCapacity = capacity;
         int newCapacity = capacity * 2;
         Collection<Node>[] newBuckets = new Collection[newCapacity];
-        for (int i = 0; i < newCapacity; i++) {
-            newBuckets[i] = createBucket();
+
+        if (incrementalResize) {
+            oldBuckets = buckets;
+            oldCapacity = capacity;
+            migrateIndex = 0;
+            buckets = newBuckets;
+            capacity = newCapacity;
+        } else {
+            rehash(newBuckets);
+        }
+        if (stats != null) {
+            stats.recordResize(System.nanoTime() - start, previousCapacity, capacity, numOfElements);
         }
+    }
 
-        // Rehash all existing entries
+    /* Moves every entry into NEWBUCKETS, which becomes the table */
+    private void rehash(Collection<Node>[] newBuckets) {
+        int newCapacity = newBuckets.length;
         for (Collection<Node> bucket : buckets) {
+            if (bucket == null) {
+                continue;
+            }
             for (Node node : bucket) {
-                int newIndex = Math.floorMod(node.key.hashCode(), newCapacity);
-                newBuckets[newIndex].add(node);
+                int newIndex = Math.floorMod(hash(node.key), newCapacity);
+                bucketAt(newBuckets, newIndex).add(node);
             }
         }
 
@@ -138,51 +348,230 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         capacity = newCapacity;
     }
 
+    /* Grows the table at once so that EXPECTED entries fit under the load factor */
+    @SuppressWarnings({"rawtypes", "unchecked"}) // It is safe
+    private void ensureCapacity(long expected) {
+        while (oldBuckets != null) {
+            migrateStep();
+        }
+        int newCapacity = Math.max(capacity, 1);
+        while (expected > loadFactor * newCapacity && newCapacity < MAXIMUM_CAPACITY) {
+            newCapacity *= 2;
+        }
+        if (newCapacity > capacity) {
+            long start = stats == null ? 0 : System.nanoTime();
+            int previousCapacity = capacity;
+            rehash(new Collection[newCapacity]);
+            if (stats != null) {
+                stats.recordResize(System.nanoTime() - start, previousCapacity, capacity, numOfElements);
+            }
+        }
+    }
+
+    /**
+     * Copies every mapping of OTHER into this map, growing the table once up front.
+     */
+    @Override
+    public void putAll(Map61B<? extends K, ? extends V> other) {
+        ensureCapacity((long) numOfElements + other.size());
+        Map61B.super.putAll(other);
+    }
+
+    /**
+     * Puts every entry of ENTRIES, the last one winning for a repeated key. Large
+     * batches are loaded on all cores of the common fork/join pool: the table is
+     * grown once, the batch is hashed in parallel and split into runs of adjacent
+     * buckets, and each run is filled by one thread. While a snapshot is attached the
+     * batch goes through put(), which keeps the snapshot's bookkeeping.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void bulkLoad(Stream<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        Map.Entry<? extends K, ? extends V>[] batch = entries.toArray(Map.Entry[]::new);
+        int n = batch.length;
+        if (snapshot != null || n < BULK_PARALLEL_THRESHOLD) {
+            ensureCapacity((long) numOfElements + n);
+            for (Map.Entry<? extends K, ? extends V> entry : batch) {
+                put(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        int[] index = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            K key = batch[i].getKey();
+            if (key == null) {
+                throw new IllegalArgumentException("Null keys are not allowed");
+            }
+            index[i] = hash(key);
+        });
+        ensureCapacity((long) numOfElements + n);
+        // Stable counting sort of the batch by block, so each key keeps its order
+        int blocks = (capacity + BULK_BLOCK_BUCKETS - 1) / BULK_BLOCK_BUCKETS;
+        int[] start = new int[blocks + 1];
+        for (int i = 0; i < n; i++) {
+            index[i] = Math.floorMod(index[i], capacity);
+            start[index[i] / BULK_BLOCK_BUCKETS + 1] += 1;
+        }
+        for (int b = 0; b < blocks; b++) {
+            start[b + 1] += start[b];
+        }
+        int[] order = new int[n];
+        int[] next = Arrays.copyOf(start, blocks);
+        for (int i = 0; i < n; i++) {
+            order[next[index[i] / BULK_BLOCK_BUCKETS]++] = i;
+        }
+        int added = IntStream.range(0, blocks).parallel()
+                .map(b -> loadBlock(batch, index, order, start[b], start[b + 1]))
+                .sum();
+        numOfElements += added;
+        modCount += 1;
+    }
+
+    /* Puts BATCH[ORDER[FROM..TO)] into their buckets; returns the number of new keys */
+    private int loadBlock(Map.Entry<? extends K, ? extends V>[] batch, int[] index, int[] order, int from, int to) {
+        int added = 0;
+        for (int j = from; j < to; j++) {
+            Map.Entry<? extends K, ? extends V> entry = batch[order[j]];
+            Collection<Node> bucket = bucketAt(buckets, index[order[j]]);
+            Node existing = findNode(bucket, entry.getKey());
+            if (existing != null) {
+                existing.value = entry.getValue();
+            } else {
+                bucket.add(new Node(entry.getKey(), entry.getValue()));
+                added += 1;
+            }
+        }
+        return added;
+    }
+
+    /* Moves a bounded number of old buckets into the new table */
+    private void migrateStep() {
+        if (oldBuckets == null) {
+            return;
+        }
+        int moved = 0;
+        int visited = 0;
+        while (migrateIndex < oldCapacity && moved < MIGRATE_STEP && visited < MIGRATE_EMPTY_VISITS) {
+            Collection<Node> bucket = oldBuckets[migrateIndex];
+            if (bucket != null) {
+                for (Node node : bucket) {
+                    bucketAt(buckets, getIndex(node.key)).add(node);
+                }
+                oldBuckets[migrateIndex] = null;
+                moved += 1;
+            }
+            migrateIndex += 1;
+            visited += 1;
+        }
+        if (migrateIndex == oldCapacity) {
+            oldBuckets = null;
+        }
+    }
+
     @Override
     public V get(K key) {
         if (key == null) {
             throw new IllegalArgumentException("Null keys are not allowed");
         }
-        int index = getIndex(key);
-        Collection<Node> bucket = buckets[index];
-        for (Node node : bucket) {
-            if (node.key.equals(key)) {
-                return node.value;
-            }
+        MapStats s = stats;
+        if (s == null) {
+            return lookup(key);
         }
-        return null;
+        int probes = chainLength(key);
+        long start = System.nanoTime();
+        V value = lookup(key);
+        s.recordOperation(MapStats.Operation.GET, System.nanoTime() - start, probes);
+        return value;
+    }
+
+    private V lookup(K key) {
+        Node node = getNode(key);
+        if (node != null) {
+            return node.value;
+        }
+        return snapshot == null ? null : snapshot.get(key);
     }
 
     @Override
     public boolean containsKey(K key) {
-        int index = getIndex(key);
-        Collection<Node> bucket = buckets[index];
-        for (Node node : bucket) {
-            if (node.key.equals(key)) {
-                return true;
+        return containsObject(key);
+    }
+
+    private boolean containsObject(Object key) {
+        return getNode(key) != null || (snapshot != null && snapshot.find(key) >= 0);
+    }
+
+    /* Returns the node holding KEY, or null */
+    private Node getNode(Object key) {
+        Collection<Node> bucket = bucketOf(key);
+        return bucket == null ? null : findNode(bucket, key);
+    }
+
+    /* Number of entries in the bucket an operation on KEY searches */
+    private int chainLength(Object key) {
+        Collection<Node> bucket = bucketOf(key);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    /**
+     * Starts recording statistics on this map's operations and resizes; see MapStats.
+     * Until this is called, every operation skips the bookkeeping.
+     */
+    public void enableStats() {
+        if (stats == null) {
+            stats = new MapStats(this);
+        }
+    }
+
+    /**
+     * Returns this map's statistics, after refreshing the bucket length distribution
+     * and taking a load factor sample. Takes time proportional to the capacity.
+     */
+    public MapStats stats() {
+        if (stats == null) {
+            throw new IllegalStateException("Statistics are not enabled; call enableStats() first");
+        }
+        MapStats.Histogram lengths = stats.resetBucketLengths();
+        if (oldBuckets != null) {
+            for (int i = migrateIndex; i < oldCapacity; i++) {
+                lengths.record(oldBuckets[i] == null ? 0 : oldBuckets[i].size());
             }
         }
-        return false;
+        for (Collection<Node> bucket : buckets) {
+            lengths.record(bucket == null ? 0 : bucket.size());
+        }
+        stats.sampleLoad(numOfElements, capacity);
+        return stats;
     }
 
     @Override
     public int size() {
-        return numOfElements;
+        return snapshot == null ? numOfElements : numOfElements + snapshot.remaining;
     }
 
     @Override
     public void clear() {
-        for (int i = 0; i < capacity; i++) {
-            buckets[i].clear();
-        }
+        Arrays.fill(buckets, null);
+        oldBuckets = null;
+        snapshot = null;
 
         numOfElements = 0;
-        keyset.clear();
+        modCount += 1;
     }
 
     @Override
     public Set<K> keySet() {
-        return keyset;
+        return new KeySet();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
     }
 
     @Override
@@ -190,25 +579,553 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         if (key == null) {
             throw new IllegalArgumentException("Null keys are not allowed");
         }
-        int index = getIndex(key);
-        Collection<Node> bucket = buckets[index];
-        Iterator<Node> iterator = bucket.iterator();
+        MapStats s = stats;
+        if (s == null) {
+            return delete(key);
+        }
+        int probes = chainLength(key);
+        long start = System.nanoTime();
+        V value = delete(key);
+        s.recordOperation(MapStats.Operation.REMOVE, System.nanoTime() - start, probes);
+        return value;
+    }
 
-        while (iterator.hasNext()) {
-            Node node = iterator.next();
-            if (node.key.equals(key)) {
-                V value = node.value;
-                iterator.remove();
-                numOfElements -= 1;
-                keyset.remove(key);
-                return value;
-            }
+    private V delete(K key) {
+        migrateStep();
+        Collection<Node> bucket = bucketOf(key);
+        Node node = bucket == null ? null : findNode(bucket, key);
+        if (node == null) {
+            return snapshot == null ? null : snapshot.remove(key);
         }
-        return null;
+        bucket.remove(node);
+        numOfElements -= 1;
+        modCount += 1;
+        return node.value;
     }
 
     @Override
     public Iterator<K> iterator() {
-        return keyset.iterator();
+        return new KeyIterator();
+    }
+
+    /*
+     * Walks the unmigrated old buckets, if any, then the current buckets in index order;
+     * fails fast on concurrent modification.
+     *
+     * put() of an existing key is not a structural change, but during an incremental
+     * resize it still migrates buckets under a live iterator. Old bucket i always
+     * migrates into new buckets i and i + oldTable.length, so an old bucket that was
+     * migrated before the iterator reached it is walked there instead, and the walk of
+     * the new table then skips every bucket holding nodes of old buckets from START on.
+     */
+    private abstract class HashIterator<E> implements Iterator<E> {
+        {
+            materializeSnapshot();
+        }
+
+        private final Collection<Node>[] oldTable = oldBuckets;
+        private final int start = oldBuckets == null ? 0 : migrateIndex; // First old bucket to walk
+        private int nextBucket = start;
+        private boolean inOldTable = oldBuckets != null;
+        private int pendingBucket = -1; // Second new bucket of a migrated old bucket, or -1
+        private Collection<Node> bucket; // Bucket that bucketIterator walks
+        private Iterator<Node> bucketIterator = Collections.emptyIterator();
+        private Iterator<Node> lastIterator; // Bucket iterator that returned the last node
+        private Collection<Node> lastBucket;
+        private Node lastNode;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            while (!bucketIterator.hasNext()) {
+                Collection<Node> next;
+                if (pendingBucket >= 0) {
+                    next = buckets[pendingBucket];
+                    pendingBucket = -1;
+                } else if (inOldTable) {
+                    if (nextBucket >= oldTable.length) {
+                        inOldTable = false;
+                        nextBucket = 0;
+                        continue;
+                    }
+                    int i = nextBucket++;
+                    next = oldTable[i];
+                    if (next == null) {
+                        // Migrated since this iterator was created, or never used
+                        next = buckets[i];
+                        pendingBucket = i + oldTable.length;
+                    }
+                } else {
+                    if (nextBucket >= buckets.length) {
+                        return false;
+                    }
+                    int j = nextBucket++;
+                    if (oldTable != null && j % oldTable.length >= start) {
+                        continue; // Its nodes were walked with the old table
+                    }
+                    next = buckets[j];
+                }
+                if (next != null) {
+                    bucket = next;
+                    bucketIterator = next.iterator();
+                }
+            }
+            return true;
+        }
+
+        Node nextNode() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastIterator = bucketIterator;
+            lastBucket = bucket;
+            lastNode = bucketIterator.next();
+            return lastNode;
+        }
+
+        @Override
+        public void remove() {
+            if (lastIterator == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            lastIterator.remove();
+            Collection<Node> home = bucketOf(lastNode.key);
+            if (home != lastBucket && home != null) {
+                home.remove(lastNode); // Its old bucket was migrated while being walked
+            }
+            lastIterator = null;
+            lastNode = null;
+            numOfElements -= 1;
+            modCount += 1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private class KeyIterator extends HashIterator<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private class ValueIterator extends HashIterator<V> {
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    private class EntryIterator extends HashIterator<Map.Entry<K, V>> {
+        @Override
+        public Map.Entry<K, V> next() {
+            return nextNode();
+        }
+    }
+
+    /* Live views computed from the buckets */
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return MyHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && containsObject(o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            MyHashMap.this.remove((K) o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return MyHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return MyHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || e.getKey() == null) {
+                return false;
+            }
+            Node node = getNode(e.getKey());
+            if (node != null) {
+                return Objects.equals(node.value, e.getValue());
+            }
+            return snapshot != null && snapshot.containsEntry(e.getKey(), e.getValue());
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+    }
+
+    /* Hash used inside snapshot files; unseeded so that any instance can read them */
+    private static int snapshotHash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h; // 0 marks an empty slot
+    }
+
+    /**
+     * Writes every mapping to a snapshot file at PATH, replacing it atomically.
+     *
+     * The file holds a versioned header, an open-addressing slot array of (hash, record
+     * offset) pairs, and an arena of records encoded with the given serializers. Keys
+     * must have a hashCode() that is stable across JVMs, as String and the boxed
+     * primitives do.
+     *
+     * @param path destination file
+     * @param keySerializer encodes keys
+     * @param valueSerializer encodes non-null values
+     */
+    public void writeSnapshot(Path path, Serializer<K> keySerializer, Serializer<V> valueSerializer)
+            throws IOException {
+        materializeSnapshot();
+        if (numOfElements > 1 << 29) {
+            throw new IOException("Too many entries for a snapshot: " + numOfElements);
+        }
+        int slotCount = IntIntMap.tableSizeFor(Math.max(2, numOfElements * 2));
+        int mask = slotCount - 1;
+        long arenaStart = SNAPSHOT_HEADER_BYTES + (long) slotCount * SNAPSHOT_SLOT_BYTES;
+        long segmentBytes = 1L << SNAPSHOT_SEGMENT_SHIFT;
+        int[] slotHashes = new int[slotCount];
+        long[] slotOffsets = new long[slotCount];
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(arenaStart);
+            CountingOutputStream counter = new CountingOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            DataOutputStream out = new DataOutputStream(counter);
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            DataOutputStream recordOut = new DataOutputStream(record);
+            for (Map.Entry<K, V> entry : entrySet()) {
+                // Encode first, so a record that would straddle a segment can start the next one
+                record.reset();
+                keySerializer.write(entry.getKey(), recordOut);
+                V value = entry.getValue();
+                recordOut.writeBoolean(value != null);
+                if (value != null) {
+                    valueSerializer.write(value, recordOut);
+                }
+                if (record.size() > segmentBytes) {
+                    throw new IOException("Snapshot record of " + record.size() + " bytes exceeds a segment");
+                }
+                long position = arenaStart + counter.count;
+                long segmentEnd = ((position >>> SNAPSHOT_SEGMENT_SHIFT) + 1) << SNAPSHOT_SEGMENT_SHIFT;
+                for (; position + record.size() > segmentEnd && position < segmentEnd; position++) {
+                    out.write(0);
+                }
+
+                int h = snapshotHash(entry.getKey());
+                int slot = h & mask;
+                while (slotHashes[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slotHashes[slot] = h;
+                slotOffsets[slot] = position;
+                record.writeTo(out);
+            }
+            out.flush(); // Not close(), which would close the channel
+
+            ByteBuffer head = ByteBuffer.allocate((int) Math.min(arenaStart, 1 << 16));
+            head.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(numOfElements).putInt(slotCount)
+                    .putInt(SNAPSHOT_SEGMENT_SHIFT);
+            long position = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (head.remaining() < SNAPSHOT_SLOT_BYTES) {
+                    position += flush(channel, head, position);
+                }
+                head.putInt(slotHashes[slot]).putLong(slotOffsets[slot]);
+            }
+            flush(channel, head, position);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    /* Writes the contents of BUFFER at POSITION and empties it; returns the bytes written */
+    private static int flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return length;
+    }
+
+    /**
+     * Replaces the contents of this map with the snapshot at PATH. The file is mapped,
+     * not read: entries are decoded one at a time as they are looked up.
+     *
+     * @param path a file written by writeSnapshot()
+     * @param keySerializer decodes keys, matching the one used to write the file
+     * @param valueSerializer decodes values, matching the one used to write the file
+     */
+    public void loadSnapshot(Path path, Serializer<K> keySerializer, Serializer<V> valueSerializer)
+            throws IOException {
+        ByteBuffer[] segments;
+        int segmentShift;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+            channel.read(header, 0);
+            if (header.hasRemaining() || header.getInt(0) != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a MyHashMap snapshot: " + path);
+            }
+            if (header.getInt(4) != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + header.getInt(4) + ": " + path);
+            }
+            // Files from before segmenting leave the shift 0; they were only written below 2 GiB
+            segmentShift = header.getInt(20) == 0 ? 31 : header.getInt(20);
+            if (segmentShift > 31 || (header.getInt(20) == 0 && size > Integer.MAX_VALUE)) {
+                throw new IOException("Corrupt snapshot segment size: " + path);
+            }
+            long segmentBytes = 1L << segmentShift;
+            segments = new ByteBuffer[(int) ((size + segmentBytes - 1) >>> segmentShift)];
+            for (int i = 0; i < segments.length; i++) {
+                // Overlap by one slot so that a slot across a boundary is whole in one segment
+                long start = (long) i << segmentShift;
+                long length = Math.min(size - start, Math.min(segmentBytes + SNAPSHOT_SLOT_BYTES, Integer.MAX_VALUE));
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+        }
+        clear();
+        snapshot = new Snapshot(segments, segmentShift, keySerializer, valueSerializer);
+    }
+
+    /* Moves every entry still in the snapshot onto the heap and detaches it */
+    private void materializeSnapshot() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            return;
+        }
+        snapshot = null;
+        for (int slot = 0; slot <= s.mask; slot++) {
+            if (s.slotHash(slot) != 0 && !s.consumed.get(slot)) {
+                ByteBuffer in = s.record(slot);
+                K key = s.keySerializer.read(in);
+                put(key, s.readValue(in));
+            }
+        }
+    }
+
+    /* A memory-mapped snapshot file; slots whose key was put or removed since are consumed */
+    private class Snapshot {
+        final ByteBuffer[] segments; // Segment i maps the file from i << segmentShift
+        final int segmentShift;
+        final int mask;
+        final Serializer<K> keySerializer;
+        final Serializer<V> valueSerializer;
+        final BitSet consumed = new BitSet();
+        int remaining;
+
+        Snapshot(ByteBuffer[] segments, int segmentShift, Serializer<K> keySerializer,
+                 Serializer<V> valueSerializer) {
+            this.segments = segments;
+            this.segmentShift = segmentShift;
+            this.remaining = (int) segments[0].getLong(8);
+            this.mask = segments[0].getInt(16) - 1;
+            this.keySerializer = keySerializer;
+            this.valueSerializer = valueSerializer;
+        }
+
+        /* The segment holding file offset POSITION, and the offset within it */
+        private ByteBuffer segment(long position) {
+            return segments[(int) (position >>> segmentShift)];
+        }
+
+        private int offsetIn(long position) {
+            return (int) (position & ((1L << segmentShift) - 1));
+        }
+
+        private long slotPosition(int slot) {
+            return SNAPSHOT_HEADER_BYTES + (long) slot * SNAPSHOT_SLOT_BYTES;
+        }
+
+        int slotHash(int slot) {
+            long position = slotPosition(slot);
+            return segment(position).getInt(offsetIn(position));
+        }
+
+        /* A buffer positioned at the record of SLOT */
+        ByteBuffer record(int slot) {
+            long position = slotPosition(slot);
+            long offset = segment(position).getLong(offsetIn(position) + 4);
+            return segment(offset).duplicate().position(offsetIn(offset));
+        }
+
+        /* Reads the value that follows a key in IN */
+        V readValue(ByteBuffer in) {
+            return in.get() == 0 ? null : valueSerializer.read(in);
+        }
+
+        /* Returns the live slot holding KEY, or -1 */
+        int find(Object key) {
+            int h = snapshotHash(key);
+            int slot = h & mask;
+            while (true) {
+                int slotHash = slotHash(slot);
+                if (slotHash == 0) {
+                    return -1;
+                }
+                if (slotHash == h && !consumed.get(slot) && key.equals(keySerializer.read(record(slot)))) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        V get(Object key) {
+            int slot = find(key);
+            if (slot < 0) {
+                return null;
+            }
+            ByteBuffer in = record(slot);
+            keySerializer.read(in);
+            return readValue(in);
+        }
+
+        boolean containsEntry(Object key, Object value) {
+            return find(key) >= 0 && Objects.equals(get(key), value);
+        }
+
+        void consume(Object key) {
+            int slot = find(key);
+            if (slot >= 0) {
+                consumed.set(slot);
+                remaining -= 1;
+            }
+        }
+
+        V remove(Object key) {
+            int slot = find(key);
+            if (slot < 0) {
+                return null;
+            }
+            ByteBuffer in = record(slot);
+            keySerializer.read(in);
+            V value = readValue(in);
+            consumed.set(slot);
+            remaining -= 1;
+            modCount += 1;
+            return value;
+        }
+    }
+
+    /**
+     * Regression check for iteration during an incremental resize: overwriting every
+     * visited key keeps migrating buckets under the iterator, which must still return
+     * each key exactly once, and removing through the iterator must stick.
+     */
+    public static void main(String[] args) {
+        for (int n = 1; n <= 2000; n++) {
+            MyHashMap<Integer, Integer> map = new MyHashMap<>(4, DEFAULT_LOAD_FACTOR, true);
+            for (int i = 0; i < n; i++) {
+                map.put(i, i);
+            }
+            Set<Integer> seen = new HashSet<>();
+            for (int key : map) {
+                if (!seen.add(key)) {
+                    throw new IllegalStateException(n + " entries: key " + key + " returned twice");
+                }
+                map.put(key, -key);
+            }
+            if (seen.size() != n) {
+                throw new IllegalStateException(n + " entries: iterated " + seen.size());
+            }
+            Iterator<Integer> it = map.iterator();
+            while (it.hasNext()) {
+                int key = it.next();
+                map.put(key, key);
+                if (key % 2 == 0) {
+                    it.remove();
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if ((map.get(i) != null) != (i % 2 != 0)) {
+                    throw new IllegalStateException(n + " entries: key " + i + " after removing the even keys");
+                }
+            }
+        }
+        System.out.println("Iteration during incremental resize: OK");
+    }
+
+    /* Counts the bytes written through it, so that record offsets can exceed an int */
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count += 1;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
     }
 }
@@ -0,0 +1,501 @@
+package DataStructure.Map;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *  A hash map from byte strings to byte strings whose data lives outside the Java heap.
+ *
+ *  Both the slot table and the records are kept in direct ByteBuffers, so the garbage
+ *  collector only ever sees a handful of buffer objects, however many entries there are.
+ *   - The slot table is an open-addressing table with linear probing and backward-shift
+ *     deletion, split into pages of SLOTS_PER_PAGE slots. Each 16 byte slot holds the
+ *     key's hash, the key length and the record address.
+ *   - Records ([int keyLength][int valueLength][key][value]) are carved out of
+ *     fixed-size slabs by a size-class allocator. Chunks are powers of two and freed
+ *     chunks are threaded onto per-class free lists stored in the chunks themselves.
+ *     Records larger than a slab get a slab of their own.
+ *
+ *  get() returns a zero-copy, read-only ByteValue that views the record in place. It
+ *  is only valid until that key is overwritten or removed. remove() copies the old
+ *  value onto the heap before freeing it. Keys handed out by keySet() and iteration
+ *  are heap copies.
+ *
+ *  Not thread-safe. Null keys and values are not allowed.
+ */
+public class OffHeapByteMap implements Map61B<ByteKey, ByteValue> {
+    /* Default value */
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int DEFAULT_SLAB_BYTES = 4 << 20;
+    private static final double LOAD_FACTOR = 0.75;
+
+    /* Slot layout: [int hash][int keyLength][long address], hash 0 marks an empty slot */
+    private static final int SLOT_BYTES = 16;
+    private static final int SLOTS_PER_PAGE_LOG = 16;
+    private static final int SLOTS_PER_PAGE = 1 << SLOTS_PER_PAGE_LOG;
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    /* Instance Variables */
+    private ByteBuffer[] slotPages;
+    private long mask; // capacity - 1
+    private long numOfElements;
+    private long threshold;
+    private int modCount;
+    private final SlabAllocator allocator;
+
+    /** Constructors */
+    public OffHeapByteMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_SLAB_BYTES);
+    }
+
+    /**
+     * OffHeapByteMap constructor.
+     *
+     * @param initialCapacity initial number of slots, rounded up to a power of two
+     * @param slabBytes size of each record slab, rounded up to a power of two
+     */
+    public OffHeapByteMap(long initialCapacity, int slabBytes) {
+        this.allocator = new SlabAllocator(Math.max(64, slabBytes));
+        allocateSlots(Math.max(2, Long.highestOneBit(Math.max(1, initialCapacity - 1)) << 1));
+        this.numOfElements = 0;
+    }
+
+    private void allocateSlots(long capacity) {
+        int pages = (int) Math.max(1, capacity >>> SLOTS_PER_PAGE_LOG);
+        int slotsPerPage = (int) Math.min(capacity, SLOTS_PER_PAGE);
+        slotPages = new ByteBuffer[pages];
+        for (int i = 0; i < pages; i++) {
+            slotPages[i] = ByteBuffer.allocateDirect(slotsPerPage * SLOT_BYTES);
+        }
+        mask = capacity - 1;
+        threshold = (long) (capacity * LOAD_FACTOR);
+    }
+
+    /* Spreads ByteKey's hash and reserves 0 for empty slots */
+    private static int hash(ByteKey key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+
+    private ByteBuffer page(long slot) {
+        return slotPages[(int) (slot >>> SLOTS_PER_PAGE_LOG)];
+    }
+
+    private static int offset(long slot) {
+        return (int) (slot & (SLOTS_PER_PAGE - 1)) * SLOT_BYTES;
+    }
+
+    private int slotHash(long slot) {
+        return page(slot).getInt(offset(slot));
+    }
+
+    private int slotKeyLength(long slot) {
+        return page(slot).getInt(offset(slot) + 4);
+    }
+
+    private long slotAddress(long slot) {
+        return page(slot).getLong(offset(slot) + 8);
+    }
+
+    private void writeSlot(long slot, int h, int keyLength, long address) {
+        ByteBuffer page = page(slot);
+        int offset = offset(slot);
+        page.putInt(offset, h);
+        page.putInt(offset + 4, keyLength);
+        page.putLong(offset + 8, address);
+    }
+
+    /* Returns the slot holding KEY, or -1 */
+    private long findSlot(ByteKey key) {
+        int h = hash(key);
+        byte[] bytes = key.bytes();
+        long slot = h & mask;
+        while (true) {
+            int slotHash = slotHash(slot);
+            if (slotHash == 0) {
+                return -1;
+            }
+            if (slotHash == h && slotKeyLength(slot) == bytes.length
+                    && allocator.keyEquals(slotAddress(slot), bytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public void put(ByteKey key, ByteValue value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Null keys and values are not allowed");
+        }
+        long slot = findSlot(key);
+        if (slot >= 0) {
+            long address = allocator.rewrite(slotAddress(slot), key.bytes(), value.buffer());
+            writeSlot(slot, slotHash(slot), key.length(), address);
+            return;
+        }
+        long address = allocator.store(key.bytes(), value.buffer());
+        int h = hash(key);
+        slot = h & mask;
+        while (slotHash(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        writeSlot(slot, h, key.length(), address);
+        numOfElements += 1;
+        modCount += 1;
+        if (numOfElements > threshold) {
+            resize();
+        }
+    }
+
+    /* Doubles the slot table; records stay where they are */
+    private void resize() {
+        ByteBuffer[] oldPages = slotPages;
+        long oldCapacity = mask + 1;
+        allocateSlots(oldCapacity * 2);
+        for (ByteBuffer oldPage : oldPages) {
+            for (int offset = 0; offset < oldPage.capacity(); offset += SLOT_BYTES) {
+                int h = oldPage.getInt(offset);
+                if (h != 0) {
+                    long slot = h & mask;
+                    while (slotHash(slot) != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    writeSlot(slot, h, oldPage.getInt(offset + 4), oldPage.getLong(offset + 8));
+                }
+            }
+        }
+    }
+
+    /** Returns a zero-copy view of the value, valid until KEY is next overwritten or removed. */
+    @Override
+    public ByteValue get(ByteKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        long slot = findSlot(key);
+        return slot < 0 ? null : new ByteValue(allocator.valueView(slotAddress(slot)));
+    }
+
+    @Override
+    public boolean containsKey(ByteKey key) {
+        return key != null && findSlot(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(numOfElements, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void clear() {
+        allocator.reset();
+        allocateSlots(mask + 1);
+        numOfElements = 0;
+        modCount += 1;
+    }
+
+    /** Returns the number of off-heap bytes held by slabs and the slot table. */
+    public long offHeapBytes() {
+        return allocator.reservedBytes() + (mask + 1) * SLOT_BYTES;
+    }
+
+    /** Removes KEY and returns a heap copy of its old value, or null. */
+    @Override
+    public ByteValue remove(ByteKey key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        long slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        long address = slotAddress(slot);
+        ByteValue old = ByteValue.of(new ByteValue(allocator.valueView(address)).toByteArray());
+        allocator.free(address);
+        removeSlot(slot);
+        return old;
+    }
+
+    /* Backward-shift deletion for linear probing */
+    private void removeSlot(long slot) {
+        long next = (slot + 1) & mask;
+        while (true) {
+            int h = slotHash(next);
+            if (h == 0) {
+                break;
+            }
+            long home = h & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                writeSlot(slot, h, slotKeyLength(next), slotAddress(next));
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        writeSlot(slot, 0, 0, 0);
+        numOfElements -= 1;
+        modCount += 1;
+    }
+
+    @Override
+    public Set<ByteKey> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<ByteKey> iterator() {
+                return OffHeapByteMap.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return OffHeapByteMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof ByteKey key && containsKey(key);
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<ByteKey, ByteValue>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<ByteKey, ByteValue>> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    Map.Entry<ByteKey, ByteValue> at(long slot) {
+                        long address = slotAddress(slot);
+                        return Map.entry(ByteKey.of(allocator.keyCopy(address)),
+                                new ByteValue(allocator.valueView(address)));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return OffHeapByteMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Collection<ByteValue> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<ByteValue> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    ByteValue at(long slot) {
+                        return new ByteValue(allocator.valueView(slotAddress(slot)));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return OffHeapByteMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<ByteKey> iterator() {
+        return new SlotIterator<>() {
+            @Override
+            ByteKey at(long slot) {
+                return ByteKey.of(allocator.keyCopy(slotAddress(slot)));
+            }
+        };
+    }
+
+    /* Walks the slot table in order, skipping empty slots */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+        private long slot = advance(0);
+        private final int expectedModCount = modCount;
+
+        private long advance(long from) {
+            while (from <= mask && slotHash(from) == 0) {
+                from += 1;
+            }
+            return from;
+        }
+
+        abstract E at(long slot);
+
+        @Override
+        public boolean hasNext() {
+            return slot <= mask;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E result = at(slot);
+            slot = advance(slot + 1);
+            return result;
+        }
+    }
+
+    /**
+     * Carves records out of direct-memory slabs.
+     *
+     * An address is (slab index << 32) | offset. Chunks come in power-of-two size
+     * classes from MIN_CHUNK_BYTES up to the slab size, and a freed chunk stores the
+     * address of the next free chunk of its class in its first 8 bytes.
+     */
+    private static class SlabAllocator {
+        private static final int MIN_CHUNK_LOG = 4;
+        private static final long NO_CHUNK = -1;
+
+        private final int slabBytes;
+        private final int slabLog;
+        private final ArrayList<ByteBuffer> slabs = new ArrayList<>();
+        private final long[] freeLists; // Head address per size class
+        private int bumpSlab; // Slab currently being carved, -1 for none
+        private int bumpOffset;
+        private long reservedBytes;
+        private byte[] keyScratch = new byte[64]; // Stored key being compared, reused by every probe
+
+        SlabAllocator(int slabBytes) {
+            this.slabLog = 32 - Integer.numberOfLeadingZeros(slabBytes - 1);
+            this.slabBytes = 1 << slabLog;
+            this.freeLists = new long[slabLog + 1];
+            reset();
+        }
+
+        void reset() {
+            slabs.clear();
+            Arrays.fill(freeLists, NO_CHUNK);
+            bumpSlab = -1;
+            bumpOffset = 0;
+            reservedBytes = 0;
+        }
+
+        long reservedBytes() {
+            return reservedBytes;
+        }
+
+        private ByteBuffer slab(long address) {
+            return slabs.get((int) (address >>> 32));
+        }
+
+        private static int offset(long address) {
+            return (int) address;
+        }
+
+        /* Size class of a record of RECORDBYTES, or -1 if it needs its own slab */
+        private int sizeClass(int recordBytes) {
+            int log = Math.max(MIN_CHUNK_LOG, 32 - Integer.numberOfLeadingZeros(recordBytes - 1));
+            return log > slabLog ? -1 : log;
+        }
+
+        private long allocate(int recordBytes) {
+            int sizeClass = sizeClass(recordBytes);
+            if (sizeClass < 0) {
+                slabs.add(ByteBuffer.allocateDirect(recordBytes));
+                reservedBytes += recordBytes;
+                return (long) (slabs.size() - 1) << 32;
+            }
+            long head = freeLists[sizeClass];
+            if (head != NO_CHUNK) {
+                freeLists[sizeClass] = slab(head).getLong(offset(head));
+                return head;
+            }
+            int chunkBytes = 1 << sizeClass;
+            if (bumpSlab < 0 || bumpOffset + chunkBytes > slabBytes) {
+                slabs.add(ByteBuffer.allocateDirect(slabBytes));
+                reservedBytes += slabBytes;
+                bumpSlab = slabs.size() - 1;
+                bumpOffset = 0;
+            }
+            long address = ((long) bumpSlab << 32) | bumpOffset;
+            bumpOffset += chunkBytes;
+            return address;
+        }
+
+        void free(long address) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            int recordBytes = RECORD_HEADER_BYTES + slab.getInt(offset) + slab.getInt(offset + 4);
+            int sizeClass = sizeClass(recordBytes);
+            if (sizeClass < 0) {
+                slabs.set((int) (address >>> 32), null); // Let the dedicated slab go
+                reservedBytes -= recordBytes;
+                return;
+            }
+            slab.putLong(offset, freeLists[sizeClass]);
+            freeLists[sizeClass] = address;
+        }
+
+        long store(byte[] key, ByteBuffer value) {
+            long address = allocate(RECORD_HEADER_BYTES + key.length + value.remaining());
+            write(address, key, value);
+            return address;
+        }
+
+        /* Overwrites in place when the new record fits the old chunk's size class */
+        long rewrite(long address, byte[] key, ByteBuffer value) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            int oldBytes = RECORD_HEADER_BYTES + slab.getInt(offset) + slab.getInt(offset + 4);
+            int newBytes = RECORD_HEADER_BYTES + key.length + value.remaining();
+            int oldClass = sizeClass(oldBytes);
+            if (oldClass >= 0 && oldClass == sizeClass(newBytes)) {
+                write(address, key, value);
+                return address;
+            }
+            free(address);
+            return store(key, value);
+        }
+
+        private void write(long address, byte[] key, ByteBuffer value) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            slab.putInt(offset, key.length);
+            slab.putInt(offset + 4, value.remaining());
+            slab.put(offset + RECORD_HEADER_BYTES, key);
+            slab.put(offset + RECORD_HEADER_BYTES + key.length, value, value.position(), value.remaining());
+        }
+
+        /* Whether the record at ADDRESS holds KEY, whose length the caller has checked */
+        boolean keyEquals(long address, byte[] key) {
+            if (keyScratch.length < key.length) {
+                keyScratch = new byte[Math.max(key.length, 2 * keyScratch.length)];
+            }
+            slab(address).get(offset(address) + RECORD_HEADER_BYTES, keyScratch, 0, key.length);
+            return Arrays.equals(keyScratch, 0, key.length, key, 0, key.length);
+        }
+
+        byte[] keyCopy(long address) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            byte[] key = new byte[slab.getInt(offset)];
+            slab.get(offset + RECORD_HEADER_BYTES, key);
+            return key;
+        }
+
+        ByteBuffer valueView(long address) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            int keyLength = slab.getInt(offset);
+            int valueLength = slab.getInt(offset + 4);
+            return slab.slice(offset + RECORD_HEADER_BYTES + keyLength, valueLength).asReadOnlyBuffer();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package DataStructure.Map;
+
+import java.util.Map;
+
+/* A Map61B whose keys are kept in sorted order, with order-statistics and range
+ * queries. Ranks are 0-based: the smallest key has rank 0. Range bounds are
+ * inclusive at both ends, and a range whose LO is greater than its HI is empty.
+ */
+public interface OrderedMap61B<K extends Comparable<K>, V> extends Map61B<K, V> {
+
+    /** Returns the smallest key, or null if the map is empty. */
+    K min();
+
+    /** Returns the largest key, or null if the map is empty. */
+    K max();
+
+    /** Returns the largest key less than or equal to KEY, or null if there is none. */
+    K floor(K key);
+
+    /** Returns the smallest key greater than or equal to KEY, or null if there is none. */
+    K ceiling(K key);
+
+    /** Returns the number of keys strictly less than KEY. KEY need not be in the map. */
+    int rank(K key);
+
+    /** Returns the key of rank K, so that select(rank(x)) == x for every key x.
+     *  Throws IllegalArgumentException unless 0 <= K < size(). */
+    K select(int k);
+
+    /** Returns the number of keys between LO and HI, inclusive. */
+    int rangeCount(K lo, K hi);
+
+    /** Returns the mappings whose keys lie between LO and HI, inclusive, in ascending
+     *  key order. The result is a lazy view: each iteration walks the map itself and
+     *  never copies the range into a collection. */
+    Iterable<Map.Entry<K, V>> range(K lo, K hi);
+}
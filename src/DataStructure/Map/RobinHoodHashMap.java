@@ -0,0 +1,446 @@
+package DataStructure.Map;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ *  An open-addressing hash table-backed Map implementation.
+ *
+ *  Keys, values and cached hashes live in three parallel flat arrays, so there is no
+ *  per-entry node object. Collisions are resolved with Robin Hood linear probing: an
+ *  entry that is further from its home slot steals the slot of an entry that is closer
+ *  to its own, which keeps probe sequences short and lets a failed lookup stop early.
+ *  remove() uses backward-shift deletion, so no tombstones are ever left behind.
+ *  The table length is always a power of two and slots are selected by masking.
+ *
+ *  Assumes null keys will never be inserted, and does not resize down upon remove().
+ */
+public class RobinHoodHashMap<K, V> implements Map61B<K, V> {
+    /* Default value */
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double DEFAULT_LOAD_FACTOR = 0.8;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /* Instance Variables */
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes; // Cached hash per slot, 0 marks an empty slot
+    private int mask; // capacity - 1
+    private int numOfElements;
+    private int threshold; // Resize once numOfElements exceeds this
+    private final double loadFactor;
+    private int modCount; // Structural modifications, for fail-fast iterators
+
+    /** Constructors */
+    public RobinHoodHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public RobinHoodHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * RobinHoodHashMap constructor that creates backing arrays of at least
+     * initialCapacity slots, rounded up to a power of two.
+     * The load factor (# items / # slots) should always be <= loadFactor
+     *
+     * @param initialCapacity initial number of slots
+     * @param loadFactor maximum load factor, must be in (0, 1)
+     */
+    public RobinHoodHashMap(int initialCapacity, double loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1)");
+        }
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor(initialCapacity));
+        this.numOfElements = 0;
+    }
+
+    /* Returns the smallest power of two >= n */
+    private static int tableSizeFor(int n) {
+        if (n <= 1) {
+            return 2;
+        }
+        if (n >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity * loadFactor, capacity - 1);
+    }
+
+    /* Spreads the bits of hashCode() and reserves 0 for empty slots */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+
+    /* How far the entry with hash H sitting in SLOT is from its home slot */
+    private int probeDistance(int h, int slot) {
+        return (slot - (h & mask)) & mask;
+    }
+
+    /* Returns the slot holding KEY, or -1 */
+    private int findSlot(Object key) {
+        int h = hash(key);
+        int slot = h & mask;
+        for (int dist = 0; ; dist++) {
+            int slotHash = hashes[slot];
+            if (slotHash == 0 || probeDistance(slotHash, slot) < dist) {
+                // Robin Hood invariant: KEY would have displaced this entry
+                return -1;
+            }
+            if (slotHash == h && key.equals(keys[slot])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /* Insert or update a key-value pair */
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            values[slot] = value;
+            return;
+        }
+        if (numOfElements + 1 > threshold) {
+            resize();
+        }
+        insert(hash(key), key, value);
+        numOfElements += 1;
+        modCount += 1;
+    }
+
+    /* Places a key known to be absent, displacing richer entries along the way */
+    private void insert(int h, Object key, Object value) {
+        int slot = h & mask;
+        int dist = 0;
+        while (true) {
+            int slotHash = hashes[slot];
+            if (slotHash == 0) {
+                hashes[slot] = h;
+                keys[slot] = key;
+                values[slot] = value;
+                return;
+            }
+            int slotDist = probeDistance(slotHash, slot);
+            if (slotDist < dist) {
+                // Swap the carried entry with the resident one and keep going
+                hashes[slot] = h;
+                h = slotHash;
+                Object tmpKey = keys[slot];
+                keys[slot] = key;
+                key = tmpKey;
+                Object tmpValue = values[slot];
+                values[slot] = value;
+                value = tmpValue;
+                dist = slotDist;
+            }
+            slot = (slot + 1) & mask;
+            dist += 1;
+        }
+    }
+
+    /* Doubles the table, reusing the cached hashes */
+    private void resize() {
+        if (mask + 1 == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("RobinHoodHashMap is full");
+        }
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate((mask + 1) * 2);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) {
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        int slot = findSlot(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && findSlot(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return numOfElements;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i <= mask; i++) {
+            hashes[i] = 0;
+            keys[i] = null;
+            values[i] = null;
+        }
+        numOfElements = 0;
+        modCount += 1;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not allowed");
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        V value = (V) values[slot];
+        removeSlot(slot);
+        return value;
+    }
+
+    /* Backward-shift deletion: pull the rest of the cluster one slot closer to home */
+    private void removeSlot(int slot) {
+        int next = (slot + 1) & mask;
+        while (hashes[next] != 0 && probeDistance(hashes[next], next) > 0) {
+            hashes[slot] = hashes[next];
+            keys[slot] = keys[next];
+            values[slot] = values[next];
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        hashes[slot] = 0;
+        keys[slot] = null;
+        values[slot] = null;
+        numOfElements -= 1;
+        modCount += 1;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    /* Walks the slot array in order, skipping empty slots */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+        private int slot = advance(0);
+        private final int expectedModCount = modCount;
+
+        private int advance(int from) {
+            while (from <= mask && hashes[from] == 0) {
+                from += 1;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot <= mask;
+        }
+
+        int nextSlot() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int current = slot;
+            slot = advance(slot + 1);
+            return current;
+        }
+    }
+
+    private class KeyIterator extends SlotIterator<K> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            return (K) keys[nextSlot()];
+        }
+    }
+
+    private class ValueIterator extends SlotIterator<V> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            return (V) values[nextSlot()];
+        }
+    }
+
+    private class EntryIterator extends SlotIterator<Map.Entry<K, V>> {
+        @Override
+        public Map.Entry<K, V> next() {
+            return new SlotEntry(nextSlot());
+        }
+    }
+
+    /* An entry that writes through to its slot while the key still lives there */
+    private class SlotEntry implements Map.Entry<K, V> {
+        private final K key;
+        private V value;
+        private final int slot;
+
+        @SuppressWarnings("unchecked")
+        SlotEntry(int slot) {
+            this.slot = slot;
+            this.key = (K) keys[slot];
+            this.value = (V) values[slot];
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V v) {
+            V old = value;
+            value = v;
+            if (keys[slot] == key) {
+                values[slot] = v;
+            } else {
+                put(key, v);
+            }
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && key.equals(e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /* Live views backed by the slot arrays */
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return numOfElements;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && findSlot(o) >= 0;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (o == null) {
+                return false;
+            }
+            int slot = findSlot(o);
+            if (slot < 0) {
+                return false;
+            }
+            removeSlot(slot);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            RobinHoodHashMap.this.clear();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return numOfElements;
+        }
+
+        @Override
+        public void clear() {
+            RobinHoodHashMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return numOfElements;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || e.getKey() == null) {
+                return false;
+            }
+            int slot = findSlot(e.getKey());
+            return slot >= 0 && Objects.equals(values[slot], e.getValue());
+        }
+
+        @Override
+        public void clear() {
+            RobinHoodHashMap.this.clear();
+        }
+    }
+}
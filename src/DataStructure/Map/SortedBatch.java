@@ -0,0 +1,88 @@
+package DataStructure.Map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ *  Shared bulkLoad() support for the ordered maps, which rebuild themselves from one
+ *  sorted run of entries instead of inserting the batch key by key, unless the batch
+ *  is too small for a rebuild to pay off.
+ */
+final class SortedBatch {
+
+    private SortedBatch() {
+    }
+
+    /**
+     * Returns whether putting M entries one by one into a map of N entries, about
+     * m log(n + m) steps, is cheaper than merging them in and rebuilding, n + m steps.
+     */
+    static boolean putsAreCheaper(long n, long m) {
+        long total = n + m;
+        return m * (64 - Long.numberOfLeadingZeros(total)) < total;
+    }
+
+    /** Collects ENTRIES into an array, in encounter order. */
+    @SuppressWarnings("unchecked")
+    static <K, V> Map.Entry<K, V>[] toArray(Stream<? extends Map.Entry<? extends K, ? extends V>> entries) {
+        return entries.toArray(Map.Entry[]::new);
+    }
+
+    /**
+     * Returns the union of EXISTING, which must iterate in strictly ascending key
+     * order, and BATCH, in strictly ascending key order. When a key occurs more than
+     * once the last occurrence in BATCH wins, as it would with put() in encounter
+     * order.
+     *
+     * BATCH is sorted in place with a stable parallel merge sort, unless it is
+     * already in ascending order, which is checked first in linear time.
+     *
+     * @param existing the map's current entries, in key order
+     * @param existingSize number of entries in EXISTING
+     * @param batch the entries to put, in encounter order
+     */
+    static <K extends Comparable<K>, V> List<Map.Entry<K, V>> merge(
+            Iterator<? extends Map.Entry<K, V>> existing, int existingSize, Map.Entry<K, V>[] batch) {
+        boolean sorted = true;
+        for (int i = 0; i < batch.length; i++) {
+            if (batch[i].getKey() == null) {
+                throw new IllegalArgumentException("Null keys are not allowed");
+            }
+            if (i > 0 && sorted && batch[i - 1].getKey().compareTo(batch[i].getKey()) > 0) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            Arrays.parallelSort(batch, Map.Entry.comparingByKey());
+        }
+
+        List<Map.Entry<K, V>> merged = new ArrayList<>(existingSize + batch.length);
+        Map.Entry<K, V> current = existing.hasNext() ? existing.next() : null;
+        int i = 0;
+        while (i < batch.length) {
+            // Collapse a run of equal keys to its last entry
+            while (i + 1 < batch.length && batch[i].getKey().compareTo(batch[i + 1].getKey()) == 0) {
+                i += 1;
+            }
+            Map.Entry<K, V> update = batch[i];
+            while (current != null && current.getKey().compareTo(update.getKey()) < 0) {
+                merged.add(current);
+                current = existing.hasNext() ? existing.next() : null;
+            }
+            if (current != null && current.getKey().compareTo(update.getKey()) == 0) {
+                current = existing.hasNext() ? existing.next() : null; // Replaced by UPDATE
+            }
+            merged.add(update);
+            i += 1;
+        }
+        while (current != null) {
+            merged.add(current);
+            current = existing.hasNext() ? existing.next() : null;
+        }
+        return merged;
+    }
+}
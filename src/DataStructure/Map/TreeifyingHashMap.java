@@ -0,0 +1,275 @@
+package DataStructure.Map;
+
+import DataStructure.RedBlackTree;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ *  A MyHashMap whose buckets upgrade themselves to balanced trees when they get long.
+ *
+ *  Each bucket starts as a small list. Once it holds TREEIFY_THRESHOLD nodes it is
+ *  rebuilt as a DataStructure.RedBlackTree, and once the tree shrinks to
+ *  UNTREEIFY_THRESHOLD nodes it goes back to a list. Tree nodes are ordered by
+ *  hashCode(), then by class name, then by compareTo() when both keys are of the same
+ *  Comparable class, then by insertion order. Lookups are therefore O(log n) even when
+ *  many keys share a bucket, and stay O(log n) for colliding Comparable keys that share
+ *  a full hashCode().
+ *
+ *  MyHashMap's per-instance hash seed only varies which bucket distinct hash codes land
+ *  in; keys crafted to share a full hashCode() collide in every map. The tree buckets
+ *  are what bound the damage from such adversarial or badly distributed hashCode()s.
+ */
+public class TreeifyingHashMap<K, V> extends MyHashMap<K, V> {
+    /* A list bucket with this many nodes becomes a tree */
+    static final int TREEIFY_THRESHOLD = 8;
+    /* A tree bucket with this many nodes becomes a list again */
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    /** Constructors */
+    public TreeifyingHashMap() {
+        super();
+    }
+
+    public TreeifyingHashMap(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    public TreeifyingHashMap(int initialCapacity, double loadFactor) {
+        super(initialCapacity, loadFactor);
+    }
+
+    public TreeifyingHashMap(int initialCapacity, double loadFactor, boolean incrementalResize) {
+        super(initialCapacity, loadFactor, incrementalResize);
+    }
+
+    @Override
+    protected Collection<Node> createBucket() {
+        return new AdaptiveBucket();
+    }
+
+    @Override
+    protected Node findNode(Collection<Node> bucket, Object key) {
+        return ((AdaptiveBucket) bucket).find(key);
+    }
+
+    /* Returns the class of X if it is "class C implements Comparable<C>", else null */
+    private static Class<?> comparableClassFor(Object x) {
+        if (!(x instanceof Comparable)) {
+            return null;
+        }
+        Class<?> c = x.getClass();
+        if (c == String.class) {
+            return c;
+        }
+        for (java.lang.reflect.Type t : c.getGenericInterfaces()) {
+            if (t instanceof java.lang.reflect.ParameterizedType p
+                    && p.getRawType() == Comparable.class
+                    && p.getActualTypeArguments().length == 1
+                    && p.getActualTypeArguments()[0] == c) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /* compareTo() of two keys of the same Comparable class, or 0 if undecidable */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compareComparables(Class<?> kc, Object k, Object x) {
+        return x == null || x.getClass() != kc ? 0 : ((Comparable) k).compareTo(x);
+    }
+
+    /* Orders keys of different classes by class name, so mixed buckets stay totally ordered */
+    private static int compareClasses(Object a, Object b) {
+        Class<?> ca = a.getClass();
+        Class<?> cb = b.getClass();
+        return ca == cb ? 0 : ca.getName().compareTo(cb.getName());
+    }
+
+    /*
+     * One map node as an item of a RedBlackTree. Items are ordered by hash, then class
+     * name, then compareTo() for keys of the same Comparable class, then insertion
+     * order, which makes the order total even for keys that are not Comparable.
+     */
+    private class TreeEntry implements Comparable<TreeEntry> {
+        final Object key;
+        final Node entry; // null for a search probe
+        final int hash;
+        final Class<?> comparableClass; // Cached comparableClassFor(key)
+        final long seq; // Insertion order, the final tie-breaker
+
+        TreeEntry(Object key, Node entry, long seq) {
+            this.key = key;
+            this.entry = entry;
+            this.hash = key.hashCode();
+            this.comparableClass = comparableClassFor(key);
+            this.seq = seq;
+        }
+
+        /* The order without the insertion-order tie-breaker */
+        int compareKeys(TreeEntry other) {
+            if (hash != other.hash) {
+                return hash < other.hash ? -1 : 1;
+            }
+            int dir = compareClasses(key, other.key);
+            if (dir != 0 || comparableClass == null) {
+                return dir;
+            }
+            return compareComparables(comparableClass, key, other.key);
+        }
+
+        @Override
+        public int compareTo(TreeEntry other) {
+            int dir = compareKeys(other);
+            return dir != 0 ? dir : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * A bucket that is a list while short and a DataStructure.RedBlackTree of TreeEntry
+     * items while long.
+     */
+    private class AdaptiveBucket extends AbstractCollection<Node> {
+        private ArrayList<Node> list = new ArrayList<>(2); // null while treeified
+        private RedBlackTree<TreeEntry> tree;
+        private long nextSeq;
+
+        Node find(Object key) {
+            if (list != null) {
+                for (Node node : list) {
+                    if (node.key.equals(key)) {
+                        return node;
+                    }
+                }
+                return null;
+            }
+            TreeEntry found = findEntry(key);
+            return found == null ? null : found.entry;
+        }
+
+        /*
+         * Keys that tie with KEY on everything but insertion order sit next to each other
+         * in the tree, starting at the ceiling of a probe that sorts before all of them.
+         * Only that run is scanned with equals().
+         */
+        private TreeEntry findEntry(Object key) {
+            TreeEntry probe = new TreeEntry(key, null, Long.MIN_VALUE);
+            for (TreeEntry e = tree.ceiling(probe); e != null && probe.compareKeys(e) == 0; e = tree.higher(e)) {
+                if (e.key.equals(key)) {
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean add(Node node) {
+            if (list != null) {
+                list.add(node);
+                if (list.size() >= TREEIFY_THRESHOLD) {
+                    treeify();
+                }
+                return true;
+            }
+            tree.insert(new TreeEntry(node.key, node, nextSeq++));
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (list != null) {
+                for (int i = 0; i < list.size(); i++) {
+                    if (list.get(i) == o) {
+                        list.remove(i);
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (!(o instanceof MyHashMap<?, ?>.Node node)) {
+                return false;
+            }
+            TreeEntry target = findEntry(node.key);
+            if (target == null || target.entry != node) {
+                return false;
+            }
+            tree.delete(target);
+            if (tree.size() <= UNTREEIFY_THRESHOLD) {
+                untreeify();
+            }
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return list != null ? list.size() : tree.size();
+        }
+
+        @Override
+        public void clear() {
+            list = new ArrayList<>(2);
+            tree = null;
+        }
+
+        @Override
+        public Iterator<Node> iterator() {
+            if (list != null) {
+                return list.iterator();
+            }
+            // Snapshot in key order so that remove() can restructure the tree freely
+            ArrayList<Node> nodes = collect();
+            return new Iterator<>() {
+                private int index = 0;
+                private Node last;
+
+                @Override
+                public boolean hasNext() {
+                    return index < nodes.size();
+                }
+
+                @Override
+                public Node next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    last = nodes.get(index++);
+                    return last;
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    AdaptiveBucket.this.remove(last);
+                    last = null;
+                }
+            };
+        }
+
+        private ArrayList<Node> collect() {
+            ArrayList<Node> nodes = new ArrayList<>(tree.size());
+            for (TreeEntry e : tree) {
+                nodes.add(e.entry);
+            }
+            return nodes;
+        }
+
+        private void treeify() {
+            ArrayList<Node> nodes = list;
+            list = null;
+            tree = new RedBlackTree<>();
+            for (Node node : nodes) {
+                add(node);
+            }
+        }
+
+        private void untreeify() {
+            list = collect();
+            tree = null;
+        }
+    }
+}
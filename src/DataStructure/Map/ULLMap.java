@@ -1,6 +1,12 @@
 package DataStructure.Map;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
 
 /** A data structure that uses a linked list to store pairs of keys and values.
@@ -11,8 +17,23 @@ public class ULLMap<K, V>  implements Map61B<K, V> {
 
     int size = 0;
 
+    /** Records operations once enableStats() is called; null until then. */
+    private MapStats stats;
+
     /** Returns the value corresponding to KEY or null if no such value exists. */
     public V get(K key) {
+        MapStats s = stats;
+        if (s == null) {
+            return lookup(key);
+        }
+        int probes = probeLength(key);
+        long start = System.nanoTime();
+        V value = lookup(key);
+        s.recordOperation(MapStats.Operation.GET, System.nanoTime() - start, probes);
+        return value;
+    }
+
+    private V lookup(K key) {
         if (list == null) {
             return null;
         }
@@ -38,10 +59,23 @@ public class ULLMap<K, V>  implements Map61B<K, V> {
     /** Inserts the key-value pair of KEY and VALUE into this dictionary,
      *  replacing the previous value associated to KEY, if any. */
     public void put(K key, V val) {
+        MapStats s = stats;
+        if (s == null) {
+            insert(key, val);
+            return;
+        }
+        int probes = probeLength(key);
+        long start = System.nanoTime();
+        insert(key, val);
+        s.recordOperation(MapStats.Operation.PUT, System.nanoTime() - start, probes);
+    }
+
+    private void insert(K key, V val) {
         if (list != null) {
             Entry lookup = list.get(key);
             if (lookup == null) {
                 list = new Entry(key, val, list);
+                size = size + 1;
             } else {
                 lookup.val = val;
             }
@@ -60,6 +94,35 @@ public class ULLMap<K, V>  implements Map61B<K, V> {
         return list.get(key) != null;
     }
 
+    /** Returns the number of entries a search for KEY compares against: its
+     *  position in the list, or the whole list if KEY is absent. */
+    private int probeLength(K key) {
+        int probes = 0;
+        for (Entry e = list; e != null; e = e.next) {
+            probes += 1;
+            if (key != null && key.equals(e.key)) {
+                break;
+            }
+        }
+        return probes;
+    }
+
+    /** Starts recording the latency and probe length of get() and put(); see
+     *  MapStats. Until this is called, both skip the bookkeeping. */
+    public void enableStats() {
+        if (stats == null) {
+            stats = new MapStats(this);
+        }
+    }
+
+    /** Returns the statistics recorded since enableStats() was called. */
+    public MapStats stats() {
+        if (stats == null) {
+            throw new IllegalStateException("Statistics are not enabled; call enableStats() first");
+        }
+        return stats;
+    }
+
     @Override
     public Iterator<K> iterator() {
         return new ULLMapIter();
@@ -71,7 +134,40 @@ public class ULLMap<K, V>  implements Map61B<K, V> {
 
     /** Represents one node in the linked list that stores the key-value pairs
      *  in the dictionary. */
-    private class Entry {
+    private class Entry implements Map.Entry<K, V> {
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return val;
+        }
+
+        @Override
+        public V setValue(V v) {
+            V old = val;
+            val = v;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && Objects.equals(key, e.getKey()) && Objects.equals(val, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(val);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + val;
+        }
 
         /** Stores KEY as the key in this key-value pair, VAL as the value, and
          *  NEXT as the next node in the linked list. */
@@ -82,15 +178,18 @@ public class ULLMap<K, V>  implements Map61B<K, V> {
         }
 
         /** Returns the Entry in this linked list of key-value pairs whose key
-         *  is equal to KEY, or null if no such Entry exists. */
+         *  is equal to KEY, or null if no such Entry exists. Walks the list with
+         *  a loop, so long lists cannot overflow the stack. */
         Entry get(K k) {
-            if (k != null && k.equals(key)) {
-                return this;
-            }
-            if (next == null) {
+            if (k == null) {
                 return null;
             }
-            return next.get(key);
+            for (Entry e = this; e != null; e = e.next) {
+                if (k.equals(e.key)) {
+                    return e;
+                }
+            }
+            return null;
         }
 
         /** Stores the key of the key-value pair of this node in the list. */
@@ -102,6 +201,28 @@ public class ULLMap<K, V>  implements Map61B<K, V> {
 
     }
 
+    /** An iterator that iterates over the entries of the dictionary. */
+    private class EntryIter implements Iterator<Map.Entry<K, V>> {
+
+        /** Stores the current key-value pair. */
+        private Entry cur = list;
+
+        @Override
+        public boolean hasNext() {
+            return cur != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (cur == null) {
+                throw new NoSuchElementException();
+            }
+            Entry ret = cur;
+            cur = cur.next;
+            return ret;
+        }
+    }
+
     /** An iterator that iterates over the keys of the dictionary. */
     private class ULLMapIter implements Iterator<K> {
 
@@ -133,9 +254,63 @@ public class ULLMap<K, V>  implements Map61B<K, V> {
         throw new UnsupportedOperationException();
     }
 
+    /** Returns a read-only view of the keys, backed by the linked list. */
     @Override
     public Set<K> keySet() {
-        throw new UnsupportedOperationException();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new ULLMapIter();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /** Returns a view of the key-value pairs, backed by the linked list. */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIter();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /** Returns a view of the values, backed by the linked list. */
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                Iterator<Map.Entry<K, V>> entries = new EntryIter();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return entries.next().getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
     }
 
 }
@@ -0,0 +1,585 @@
+package DataStructure;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable sorted set backed by a left-leaning red-black tree.
+ *
+ * insert() and delete() leave this tree untouched and return a new one. Only the
+ * nodes on the search path are copied (path copying), plus a constant number of
+ * siblings recolored or rotated on each level, so an update allocates O(log n) nodes.
+ * All other nodes are shared between the old and the new tree.
+ *
+ * Every node records the edit that created it. An update may change nodes of its own
+ * edit in place, so a node rotated and then recolored by the same update is copied
+ * only once. Once the update returns, its edit is never used again and its nodes
+ * are frozen. A Transient keeps one edit open across many updates, so a bulk load
+ * copies each shared node at most once and then changes it in place.
+ *
+ * AtomicTree publishes versions with an atomic root swap. Readers take a snapshot in
+ * O(1) without locking and may keep reading it while writers move on.
+ *
+ * @param <T> The type of the items, which must be comparable.
+ */
+public final class PersistentRedBlackTree<T extends Comparable<T>> implements Iterable<T> {
+
+    private static final PersistentRedBlackTree<?> EMPTY = new PersistentRedBlackTree<>(null, 0);
+
+    /* Root of the tree. */
+    private final Node<T> root;
+    /* Number of items in the tree. */
+    private final int size;
+
+    private static final class Node<T> {
+
+        final T item;
+        boolean isBlack;
+        Node<T> left;
+        Node<T> right;
+        /* The editor that may still change this node in place. */
+        final Editor<?> edit;
+
+        Node(Editor<?> edit, boolean isBlack, T item, Node<T> left, Node<T> right) {
+            this.edit = edit;
+            this.isBlack = isBlack;
+            this.item = item;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private PersistentRedBlackTree(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty tree.
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>> PersistentRedBlackTree<T> empty() {
+        return (PersistentRedBlackTree<T>) EMPTY;
+    }
+
+    /**
+     * Returns a tree holding ITEM as well as every item in this tree. Returns this
+     * tree if ITEM is already in it.
+     * @param item
+     * @return
+     */
+    public PersistentRedBlackTree<T> insert(T item) {
+        if (contains(item)) {
+            return this;
+        }
+        Editor<T> editor = new Editor<>(size);
+        return new PersistentRedBlackTree<>(editor.insertRoot(root, item), editor.size);
+    }
+
+    /**
+     * Returns a tree holding every item in this tree except ITEM. Returns this tree
+     * if ITEM is not in it.
+     * @param item
+     * @return
+     */
+    public PersistentRedBlackTree<T> delete(T item) {
+        if (!contains(item)) {
+            return this;
+        }
+        Editor<T> editor = new Editor<>(size);
+        return new PersistentRedBlackTree<>(editor.deleteRoot(root, item), editor.size);
+    }
+
+    /**
+     * Returns a tree holding ITEMS as well as every item in this tree, inserting
+     * through a single Transient.
+     * @param items
+     * @return
+     */
+    public PersistentRedBlackTree<T> insertAll(Iterable<? extends T> items) {
+        Transient<T> batch = asTransient();
+        for (T item : items) {
+            batch.insert(item);
+        }
+        return batch.persistent();
+    }
+
+    /**
+     * Returns a Transient that starts from this tree. This tree is not affected by
+     * anything done through the Transient.
+     * @return
+     */
+    public Transient<T> asTransient() {
+        return new Transient<>(root, size);
+    }
+
+    /**
+     * Returns whether ITEM is in the tree.
+     * @param item
+     * @return
+     */
+    public boolean contains(T item) {
+        return contains(root, item);
+    }
+
+    private static <T extends Comparable<T>> boolean contains(Node<T> node, T item) {
+        while (node != null) {
+            int cmp = item.compareTo(node.item);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of items in the tree.
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the tree is empty.
+     * @return
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the smallest item. Throws NoSuchElementException if the tree is empty.
+     * @return
+     */
+    public T min() {
+        if (root == null) {
+            throw new NoSuchElementException("PersistentRedBlackTree is empty");
+        }
+        Node<T> node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.item;
+    }
+
+    /**
+     * Returns the largest item. Throws NoSuchElementException if the tree is empty.
+     * @return
+     */
+    public T max() {
+        if (root == null) {
+            throw new NoSuchElementException("PersistentRedBlackTree is empty");
+        }
+        Node<T> node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.item;
+    }
+
+    /**
+     * Returns an iterator over the items in ascending order. The tree never changes,
+     * so the iterator never fails.
+     * @return
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new TreeIterator<>(root, false);
+    }
+
+    /**
+     * Returns an iterator over the items in descending order.
+     * @return
+     */
+    public Iterator<T> descendingIterator() {
+        return new TreeIterator<>(root, true);
+    }
+
+    /* In-order (or reverse in-order) traversal driven by an explicit stack */
+    private static final class TreeIterator<T> implements Iterator<T> {
+        private final Deque<Node<T>> stack = new ArrayDeque<>();
+        private final boolean descending;
+
+        TreeIterator(Node<T> root, boolean descending) {
+            this.descending = descending;
+            pushSpine(root);
+        }
+
+        /* Pushes NODE and its left descendants, or its right ones when descending */
+        private void pushSpine(Node<T> node) {
+            while (node != null) {
+                stack.push(node);
+                node = descending ? node.right : node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<T> node = stack.pop();
+            pushSpine(descending ? node.left : node.right);
+            return node.item;
+        }
+    }
+
+    /**
+     * The left-leaning insertion and deletion of RedBlackTree, rewritten so that every
+     * node is made editable before it is changed. editable() returns nodes this editor
+     * created as they are and copies any other node, so shared nodes are never written.
+     */
+    private static final class Editor<T extends Comparable<T>> {
+        /* Number of items in the tree being edited. */
+        int size;
+        /* Cleared when the owning Transient is made persistent. */
+        boolean active = true;
+
+        Editor(int size) {
+            this.size = size;
+        }
+
+        private Node<T> editable(Node<T> node) {
+            return node.edit == this ? node : new Node<>(this, node.isBlack, node.item, node.left, node.right);
+        }
+
+        private static boolean isRed(Node<?> node) {
+            return node != null && !node.isBlack;
+        }
+
+        /* Flips the colors of editable NODE and its two children */
+        private void flipColors(Node<T> node) {
+            node.left = editable(node.left);
+            node.right = editable(node.right);
+            node.isBlack = !node.isBlack;
+            node.left.isBlack = !node.left.isBlack;
+            node.right.isBlack = !node.right.isBlack;
+        }
+
+        /* Rotates editable NODE to the right, swapping the colors of the old and new root */
+        private Node<T> rotateRight(Node<T> node) {
+            Node<T> leftNode = editable(node.left);
+            boolean nodeColor = node.isBlack;
+            node.isBlack = leftNode.isBlack;
+            leftNode.isBlack = nodeColor;
+            node.left = leftNode.right;
+            leftNode.right = node;
+            return leftNode;
+        }
+
+        /* Rotates editable NODE to the left, swapping the colors of the old and new root */
+        private Node<T> rotateLeft(Node<T> node) {
+            Node<T> rightNode = editable(node.right);
+            boolean nodeColor = node.isBlack;
+            node.isBlack = rightNode.isBlack;
+            rightNode.isBlack = nodeColor;
+            node.right = rightNode.left;
+            rightNode.left = node;
+            return rightNode;
+        }
+
+        private Node<T> balance(Node<T> node) {
+            if (isRed(node.right) && !isRed(node.left)) {
+                node = rotateLeft(node);
+            }
+            if (isRed(node.left) && isRed(node.left.left)) {
+                node = rotateRight(node);
+            }
+            if (isRed(node.left) && isRed(node.right)) {
+                flipColors(node);
+            }
+            return node;
+        }
+
+        Node<T> insertRoot(Node<T> root, T item) {
+            root = insert(root, item);
+            root.isBlack = true;
+            return root;
+        }
+
+        private Node<T> insert(Node<T> node, T item) {
+            if (node == null) {
+                size += 1;
+                return new Node<>(this, false, item, null, null);
+            }
+            node = editable(node);
+            int cmp = item.compareTo(node.item);
+            if (cmp < 0) {
+                node.left = insert(node.left, item);
+            } else if (cmp > 0) {
+                node.right = insert(node.right, item);
+            }
+            return balance(node);
+        }
+
+        /* ITEM must be in the tree rooted at ROOT */
+        Node<T> deleteRoot(Node<T> root, T item) {
+            root = editable(root);
+            if (!isRed(root.left) && !isRed(root.right)) {
+                root.isBlack = false;
+            }
+            root = delete(root, item);
+            if (root != null) {
+                root.isBlack = true;
+            }
+            size -= 1;
+            return root;
+        }
+
+        private Node<T> moveRedLeft(Node<T> node) {
+            flipColors(node);
+            if (isRed(node.right.left)) {
+                node.right = rotateRight(node.right);
+                node = rotateLeft(node);
+                flipColors(node);
+            }
+            return node;
+        }
+
+        private Node<T> moveRedRight(Node<T> node) {
+            flipColors(node);
+            if (isRed(node.left.left)) {
+                node = rotateRight(node);
+                flipColors(node);
+            }
+            return node;
+        }
+
+        private Node<T> deleteMin(Node<T> node) {
+            if (node.left == null) {
+                return null;
+            }
+            node = editable(node);
+            if (!isRed(node.left) && !isRed(node.left.left)) {
+                node = moveRedLeft(node);
+            }
+            node.left = deleteMin(node.left);
+            return balance(node);
+        }
+
+        private Node<T> delete(Node<T> node, T item) {
+            node = editable(node);
+            if (item.compareTo(node.item) < 0) {
+                if (!isRed(node.left) && !isRed(node.left.left)) {
+                    node = moveRedLeft(node);
+                }
+                node.left = delete(node.left, item);
+            } else {
+                if (isRed(node.left)) {
+                    node = rotateRight(node);
+                }
+                if (item.compareTo(node.item) == 0 && node.right == null) {
+                    return null;
+                }
+                if (!isRed(node.right) && !isRed(node.right.left)) {
+                    node = moveRedRight(node);
+                }
+                if (item.compareTo(node.item) == 0) {
+                    // Items are final, so replace the node by one holding its successor
+                    Node<T> min = node.right;
+                    while (min.left != null) {
+                        min = min.left;
+                    }
+                    node = new Node<>(this, node.isBlack, min.item, node.left, deleteMin(node.right));
+                } else {
+                    node.right = delete(node.right, item);
+                }
+            }
+            return balance(node);
+        }
+    }
+
+    /**
+     * A mutable, single-threaded builder that starts from a persistent tree. Nodes it
+     * has copied once are changed in place by later updates, so a batch of n updates
+     * allocates at most one copy of each node it touches. persistent() freezes the
+     * result; the Transient cannot be used afterwards.
+     *
+     * @param <T> The type of the items, which must be comparable.
+     */
+    public static final class Transient<T extends Comparable<T>> {
+        private final Editor<T> editor;
+        private Node<T> root;
+
+        private Transient(Node<T> root, int size) {
+            this.editor = new Editor<>(size);
+            this.root = root;
+        }
+
+        private void ensureActive() {
+            if (!editor.active) {
+                throw new IllegalStateException("Transient used after persistent()");
+            }
+        }
+
+        /**
+         * Inserts ITEM.
+         * @param item
+         * @return whether ITEM was inserted
+         */
+        public boolean insert(T item) {
+            ensureActive();
+            if (PersistentRedBlackTree.contains(root, item)) {
+                return false;
+            }
+            root = editor.insertRoot(root, item);
+            return true;
+        }
+
+        /**
+         * Removes ITEM if it is present.
+         * @param item
+         * @return whether ITEM was removed
+         */
+        public boolean delete(T item) {
+            ensureActive();
+            if (!PersistentRedBlackTree.contains(root, item)) {
+                return false;
+            }
+            root = editor.deleteRoot(root, item);
+            return true;
+        }
+
+        /**
+         * Returns whether ITEM is in the tree.
+         * @param item
+         * @return
+         */
+        public boolean contains(T item) {
+            ensureActive();
+            return PersistentRedBlackTree.contains(root, item);
+        }
+
+        /**
+         * Returns the number of items in the tree.
+         * @return
+         */
+        public int size() {
+            ensureActive();
+            return editor.size;
+        }
+
+        /**
+         * Freezes the tree and returns it as a persistent tree.
+         * @return
+         */
+        public PersistentRedBlackTree<T> persistent() {
+            ensureActive();
+            editor.active = false;
+            return new PersistentRedBlackTree<>(root, editor.size);
+        }
+    }
+
+    /**
+     * A mutable reference to the latest version of a tree, shared between threads.
+     * snapshot() is a single volatile read. Writers build the next version from the
+     * current one and publish it with compare-and-set, retrying if another writer
+     * published first, so neither readers nor writers ever lock.
+     *
+     * @param <T> The type of the items, which must be comparable.
+     */
+    public static final class AtomicTree<T extends Comparable<T>> {
+        private final AtomicReference<PersistentRedBlackTree<T>> current;
+
+        public AtomicTree() {
+            this(PersistentRedBlackTree.empty());
+        }
+
+        public AtomicTree(PersistentRedBlackTree<T> initial) {
+            this.current = new AtomicReference<>(initial);
+        }
+
+        /**
+         * Returns the latest published version. It never changes, however long the
+         * caller keeps it.
+         * @return
+         */
+        public PersistentRedBlackTree<T> snapshot() {
+            return current.get();
+        }
+
+        /**
+         * Publishes FUNCTION applied to the latest version and returns the published
+         * tree. FUNCTION may be applied more than once under contention, so it must
+         * have no side effects.
+         * @param function
+         * @return
+         */
+        public PersistentRedBlackTree<T> update(UnaryOperator<PersistentRedBlackTree<T>> function) {
+            while (true) {
+                PersistentRedBlackTree<T> old = current.get();
+                PersistentRedBlackTree<T> next = function.apply(old);
+                if (next == old || current.compareAndSet(old, next)) {
+                    return next;
+                }
+            }
+        }
+
+        /**
+         * Inserts ITEM into the latest version.
+         * @param item
+         * @return whether ITEM was inserted
+         */
+        public boolean insert(T item) {
+            while (true) {
+                PersistentRedBlackTree<T> old = current.get();
+                PersistentRedBlackTree<T> next = old.insert(item);
+                if (next == old) {
+                    return false;
+                }
+                if (current.compareAndSet(old, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Removes ITEM from the latest version.
+         * @param item
+         * @return whether ITEM was removed
+         */
+        public boolean delete(T item) {
+            while (true) {
+                PersistentRedBlackTree<T> old = current.get();
+                PersistentRedBlackTree<T> next = old.delete(item);
+                if (next == old) {
+                    return false;
+                }
+                if (current.compareAndSet(old, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Applies EDITS to a Transient of the latest version and publishes the result
+         * as one version. EDITS may run more than once under contention, each time on
+         * a fresh Transient.
+         * @param edits
+         * @return the published tree
+         */
+        public PersistentRedBlackTree<T> batch(Consumer<Transient<T>> edits) {
+            return update(tree -> {
+                Transient<T> batch = tree.asTransient();
+                edits.accept(batch);
+                return batch.persistent();
+            });
+        }
+    }
+}
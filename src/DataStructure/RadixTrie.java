@@ -0,0 +1,385 @@
+package DataStructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A radix (Patricia) tree: a Trie in which every chain of single-child nodes is
+ * collapsed into one edge labeled with the whole run of characters.
+ *
+ * Labels are not stored as Strings. All of them are slices of one shared char arena,
+ * and a node only records where its incoming label starts and how long it is. Inserting
+ * a word appends just the part that no existing edge covers; splitting an edge in two
+ * reuses the same slice. A lookup compares a whole label against the word in one bulk
+ * Arrays.mismatch() call, which the JIT vectorizes, so keys with long shared runs such
+ * as URLs and file paths take one node hop per branch point instead of one per
+ * character.
+ *
+ * delete() removes a word and merges a node that is left with a single child into that
+ * child, so the tree stays fully compressed. Merging two labels that are not adjacent
+ * in the arena appends their concatenation, and once more than half of the arena is
+ * unreachable it is compacted.
+ */
+public class RadixTrie {
+
+    // Nodes with at most this many children scan their first characters linearly
+    private static final int LINEAR_SCAN_CHILDREN = 8;
+    private static final int INITIAL_ARENA = 64;
+
+    // Node structure for the radix tree
+    private static class Node {
+        int labelStart; // Slice of the arena labeling the edge into this node
+        int labelLength;
+        char[] firsts; // First label character of each child, sorted; null while childless
+        Node[] children; // Parallel to firsts
+        int size; // Number of children
+        boolean isEndOfWord = false; // Marks end of a complete word
+
+        Node(int labelStart, int labelLength) {
+            this.labelStart = labelStart;
+            this.labelLength = labelLength;
+        }
+
+        // Index of C in firsts, or -(insertion point) - 1
+        int indexOf(char c) {
+            if (size > LINEAR_SCAN_CHILDREN) {
+                return Arrays.binarySearch(firsts, 0, size, c);
+            }
+            for (int i = 0; i < size; i++) {
+                if (firsts[i] >= c) {
+                    return firsts[i] == c ? i : -i - 1;
+                }
+            }
+            return -size - 1;
+        }
+
+        // Returns the child whose label starts with C, or null
+        Node child(char c) {
+            int i = indexOf(c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void addChild(char c, Node node) {
+            if (firsts == null) {
+                firsts = new char[2];
+                children = new Node[2];
+            } else if (size == firsts.length) {
+                firsts = Arrays.copyOf(firsts, size + (size >> 1) + 1);
+                children = Arrays.copyOf(children, firsts.length);
+            }
+            int i = -indexOf(c) - 1;
+            System.arraycopy(firsts, i, firsts, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            firsts[i] = c;
+            children[i] = node;
+            size += 1;
+        }
+
+        void removeChild(char c) {
+            int i = indexOf(c);
+            System.arraycopy(firsts, i + 1, firsts, i, size - i - 1);
+            System.arraycopy(children, i + 1, children, i, size - i - 1);
+            size -= 1;
+            children[size] = null;
+            if (size == 0) {
+                firsts = null;
+                children = null;
+            }
+        }
+    }
+
+    private final Node root = new Node(0, 0); // Root node, with an empty label
+    private char[] arena = new char[INITIAL_ARENA]; // Backing store of every label
+    private int arenaLength; // Chars of the arena in use
+    private int garbage; // Chars of the arena no label refers to
+    private int size; // Number of words
+    private int nodes = 1; // Number of nodes, the root included
+
+    /**
+     * Inserts a word into the tree.
+     * @param word the word to insert
+     */
+    public void insert(String word) {
+        char[] key = word.toCharArray();
+        Node node = root;
+        int i = 0;
+        while (i < key.length) {
+            Node child = node.child(key[i]);
+            if (child == null) {
+                // No edge starts with the next character: hang the rest of the word off NODE
+                Node leaf = new Node(append(key, i, key.length - i), key.length - i);
+                leaf.isEndOfWord = true;
+                node.addChild(key[i], leaf);
+                nodes += 1;
+                size += 1;
+                return;
+            }
+            int common = commonLength(child, key, i);
+            if (common < child.labelLength) {
+                // The word leaves the edge part way: split it where they diverge
+                Node middle = new Node(child.labelStart, common);
+                child.labelStart += common;
+                child.labelLength -= common;
+                middle.addChild(arena[child.labelStart], child);
+                node.children[node.indexOf(key[i])] = middle;
+                nodes += 1;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        if (!node.isEndOfWord) {
+            node.isEndOfWord = true;
+            size += 1;
+        }
+    }
+
+    /**
+     * Searches for a word in the tree (exact match).
+     * @param word the word to search for
+     * @return true if the word exists, false otherwise
+     */
+    public boolean search(String word) {
+        char[] key = word.toCharArray();
+        Node node = root;
+        int i = 0;
+        while (i < key.length) {
+            node = node.child(key[i]);
+            if (node == null || commonLength(node, key, i) < node.labelLength) {
+                return false;
+            }
+            i += node.labelLength;
+        }
+        return node.isEndOfWord;
+    }
+
+    /**
+     * Checks if there's any word in the tree that starts with the given prefix.
+     * @param prefix the prefix to check
+     * @return true if any word starts with the prefix, false otherwise
+     */
+    public boolean startWith(String prefix) {
+        return prefixNode(prefix.toCharArray()) != null;
+    }
+
+    /**
+     * Removes a word from the tree.
+     * @param word the word to remove
+     * @return true if the word was present, false otherwise
+     */
+    public boolean delete(String word) {
+        char[] key = word.toCharArray();
+        Node parent = null; // Parent of NODE
+        Node node = root;
+        int i = 0;
+        while (i < key.length) {
+            Node child = node.child(key[i]);
+            if (child == null || commonLength(child, key, i) < child.labelLength) {
+                return false;
+            }
+            parent = node;
+            node = child;
+            i += child.labelLength;
+        }
+        if (!node.isEndOfWord) {
+            return false;
+        }
+        node.isEndOfWord = false;
+        size -= 1;
+        if (node != root) {
+            if (node.size == 0) {
+                parent.removeChild(arena[node.labelStart]);
+                garbage += node.labelLength;
+                nodes -= 1;
+                if (parent != root && !parent.isEndOfWord && parent.size == 1) {
+                    mergeWithChild(parent);
+                }
+            } else if (node.size == 1) {
+                mergeWithChild(node);
+            }
+        }
+        if (garbage > arenaLength / 2 && arenaLength > INITIAL_ARENA) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of words in the tree.
+     * @return the number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of nodes in the tree, the root included.
+     * @return the number of nodes
+     */
+    public int nodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Returns all words stored in the tree.
+     * @return a list of all words in the tree, in character order
+     */
+    public List<String> collect() {
+        return keysWithPrefix("");
+    }
+
+    /**
+     * Finds and returns all words in the tree that start with the given prefix.
+     * @param prefix the prefix to search for
+     * @return a list of words that start with the given prefix, in character order
+     */
+    public List<String> keysWithPrefix(String prefix) {
+        List<String> results = new ArrayList<>();
+        char[] key = prefix.toCharArray();
+        Node node = root;
+        int i = 0;
+        while (i < key.length) {
+            node = node.child(key[i]);
+            if (node == null || commonLength(node, key, i) < Math.min(node.labelLength, key.length - i)) {
+                return results;
+            }
+            i += node.labelLength;
+        }
+        // The prefix may end inside the edge into NODE; complete that edge first
+        int rest = i - key.length;
+        StringBuilder word = new StringBuilder(prefix);
+        word.append(arena, node.labelStart + node.labelLength - rest, rest);
+        collectAllWords(node, word, results);
+        return results;
+    }
+
+    /**
+     * Finds the longest prefix of the given word that exists in the tree.
+     * @param word the word to search for
+     * @return the longest matching prefix
+     */
+    public String longestPrefixOf(String word) {
+        char[] key = word.toCharArray();
+        Node node = root;
+        int i = 0;
+        int length = 0; // Track the length of the matching prefix
+        while (i < key.length) {
+            node = node.child(key[i]);
+            if (node == null || commonLength(node, key, i) < node.labelLength) {
+                break; // Stop if the path breaks
+            }
+            i += node.labelLength;
+            if (node.isEndOfWord) {
+                length = i; // Update the length if it's a valid word
+            }
+        }
+        return word.substring(0, length);
+    }
+
+    // Number of leading characters of KEY[FROM..] that match the label of NODE
+    private int commonLength(Node node, char[] key, int from) {
+        int length = Math.min(node.labelLength, key.length - from);
+        int mismatch = Arrays.mismatch(arena, node.labelStart, node.labelStart + length,
+                key, from, from + length);
+        return mismatch < 0 ? length : mismatch;
+    }
+
+    // Returns the first node whose path, its own label included, covers all of KEY, or null
+    private Node prefixNode(char[] key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length) {
+            node = node.child(key[i]);
+            if (node == null) {
+                return null;
+            }
+            int common = commonLength(node, key, i);
+            if (common < Math.min(node.labelLength, key.length - i)) {
+                return null;
+            }
+            i += node.labelLength;
+        }
+        return node;
+    }
+
+    // Helper: Recursively collects all words below NODE, whose path is WORD
+    private void collectAllWords(Node node, StringBuilder word, List<String> results) {
+        if (node.isEndOfWord) {
+            results.add(word.toString()); // Add the word to results if it's complete
+        }
+        for (int i = 0; i < node.size; i++) {
+            Node child = node.children[i];
+            int length = word.length();
+            word.append(arena, child.labelStart, child.labelLength);
+            collectAllWords(child, word, results);
+            word.setLength(length); // Backtrack after recursion
+        }
+    }
+
+    // Folds the only child of NODE into it, joining their labels
+    private void mergeWithChild(Node node) {
+        Node child = node.children[0];
+        if (node.labelStart + node.labelLength != child.labelStart) {
+            // The labels are not adjacent in the arena: copy them next to each other
+            int length = node.labelLength + child.labelLength;
+            ensureArena(length);
+            System.arraycopy(arena, node.labelStart, arena, arenaLength, node.labelLength);
+            System.arraycopy(arena, child.labelStart, arena, arenaLength + node.labelLength, child.labelLength);
+            garbage += length;
+            node.labelStart = arenaLength;
+            arenaLength += length;
+        }
+        node.labelLength += child.labelLength;
+        node.isEndOfWord = child.isEndOfWord;
+        node.firsts = child.firsts;
+        node.children = child.children;
+        node.size = child.size;
+        nodes -= 1;
+    }
+
+    // Copies KEY[FROM, FROM + LENGTH) to the end of the arena; returns where it starts
+    private int append(char[] key, int from, int length) {
+        ensureArena(length);
+        System.arraycopy(key, from, arena, arenaLength, length);
+        arenaLength += length;
+        return arenaLength - length;
+    }
+
+    private void ensureArena(int extra) {
+        if (arenaLength + extra > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arenaLength + extra, 2 * arena.length));
+        }
+    }
+
+    // Rewrites the arena with only the labels still in use
+    private void compact() {
+        char[] old = arena;
+        arena = new char[Math.max(INITIAL_ARENA, 2 * (arenaLength - garbage))];
+        arenaLength = 0;
+        garbage = 0;
+        List<Node> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            node.labelStart = append(old, node.labelStart, node.labelLength);
+            for (int i = 0; i < node.size; i++) {
+                pending.add(node.children[i]);
+            }
+        }
+    }
+
+    // Main method to test the RadixTrie functionality
+    public static void main(String[] args) {
+        RadixTrie trie = new RadixTrie();
+        trie.insert("https://example.com/docs/index.html");
+        trie.insert("https://example.com/docs/intro.html");
+        trie.insert("https://example.com/blog");
+        trie.insert("https://example.org");
+
+        System.out.println(trie.collect()); // Print all words
+        System.out.println(trie.keysWithPrefix("https://example.com/do")); // Words under a partial edge
+        System.out.println(trie.longestPrefixOf("https://example.com/blog/2024")); // Longest stored prefix
+        System.out.println(trie.nodeCount() + " nodes for " + trie.size() + " words");
+    }
+}
@@ -1,9 +1,31 @@
 package DataStructure;
 
-public class RedBlackTree<T extends Comparable<T>> {
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A sorted set backed by a left-leaning red-black tree.
+ *
+ * Besides insertion and the left-leaning deletions, the tree can be built from sorted
+ * input in linear time by fromSorted(), which lays the items out as a perfectly
+ * balanced 2-3 tree and encodes each 3-node as a black node with a red left child.
+ *
+ * @param <T> The type of the items, which must be comparable.
+ */
+public class RedBlackTree<T extends Comparable<T>> implements Iterable<T> {
 
     /* Root of the tree. */
     RBTreeNode<T> root;
+    /* Number of items in the tree. */
+    private int size;
+    /* Structural modifications, for fail-fast iterators. */
+    private int modCount;
 
     static class RBTreeNode<T> {
 
@@ -48,13 +70,14 @@ public class RedBlackTree<T extends Comparable<T>> {
 
     /**
      * Flips the color of node and its children. Assume that NODE has both left
-     * and right children
+     * and right children. Insertion flips a black node with two red children;
+     * deletion also flips the other way round.
      * @param node
      */
     void flipColors(RBTreeNode<T> node) {
-        node.isBlack = false;
-        node.left.isBlack = true;
-        node.right.isBlack = true;
+        node.isBlack = !node.isBlack;
+        node.left.isBlack = !node.left.isBlack;
+        node.right.isBlack = !node.right.isBlack;
     }
 
     /**
@@ -124,6 +147,8 @@ public class RedBlackTree<T extends Comparable<T>> {
      */
     private RBTreeNode<T> insert(RBTreeNode<T> node, T item) {
         if (node == null) {
+            size += 1;
+            modCount += 1;
             return new RBTreeNode<T>(false, item);
         }
 
@@ -147,4 +172,434 @@ public class RedBlackTree<T extends Comparable<T>> {
         return node;
     }
 
+    /**
+     * Returns whether ITEM is in the tree. Walks down from the root without recursion.
+     * @param item
+     * @return
+     */
+    public boolean contains(T item) {
+        RBTreeNode<T> node = root;
+        while (node != null) {
+            int cmp = item.compareTo(node.item);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of items in the tree.
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the tree is empty.
+     * @return
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the smallest item. Throws NoSuchElementException if the tree is empty.
+     * @return
+     */
+    public T min() {
+        if (root == null) {
+            throw new NoSuchElementException("RedBlackTree is empty");
+        }
+        return min(root).item;
+    }
+
+    /**
+     * Returns the largest item. Throws NoSuchElementException if the tree is empty.
+     * @return
+     */
+    public T max() {
+        if (root == null) {
+            throw new NoSuchElementException("RedBlackTree is empty");
+        }
+        RBTreeNode<T> node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.item;
+    }
+
+    /**
+     * Returns the smallest item greater than or equal to ITEM, or null if there is none.
+     * @param item
+     * @return
+     */
+    public T ceiling(T item) {
+        return successor(item, true);
+    }
+
+    /**
+     * Returns the smallest item strictly greater than ITEM, or null if there is none.
+     * @param item
+     * @return
+     */
+    public T higher(T item) {
+        return successor(item, false);
+    }
+
+    private T successor(T item, boolean inclusive) {
+        RBTreeNode<T> node = root;
+        T best = null;
+        while (node != null) {
+            int cmp = item.compareTo(node.item);
+            if (cmp == 0 && inclusive) {
+                return node.item;
+            }
+            if (cmp < 0) {
+                best = node.item;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    private RBTreeNode<T> min(RBTreeNode<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    /**
+     * Restores the left-leaning invariants at NODE on the way back up.
+     * @param node
+     * @return
+     */
+    private RBTreeNode<T> balance(RBTreeNode<T> node) {
+        if (isRed(node.right) && !isRed(node.left)) {
+            node = rotateLeft(node);
+        }
+        if (isRed(node.left) && isRed(node.left.left)) {
+            node = rotateRight(node);
+        }
+        if (isRed(node.left) && isRed(node.right)) {
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /**
+     * Assuming NODE is red and both NODE.left and NODE.left.left are black, makes
+     * NODE.left or one of its children red.
+     * @param node
+     * @return
+     */
+    private RBTreeNode<T> moveRedLeft(RBTreeNode<T> node) {
+        flipColors(node);
+        if (isRed(node.right.left)) {
+            node.right = rotateRight(node.right);
+            node = rotateLeft(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /**
+     * Assuming NODE is red and both NODE.right and NODE.right.left are black, makes
+     * NODE.right or one of its children red.
+     * @param node
+     * @return
+     */
+    private RBTreeNode<T> moveRedRight(RBTreeNode<T> node) {
+        flipColors(node);
+        if (isRed(node.left.left)) {
+            node = rotateRight(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /* Makes the root red if both its children are black, as the top-down deletions expect */
+    private void prepareRootForDelete() {
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.isBlack = false;
+        }
+    }
+
+    private void finishDelete() {
+        if (root != null) {
+            root.isBlack = true;
+        }
+        size -= 1;
+        modCount += 1;
+    }
+
+    /**
+     * Removes the smallest item. Throws NoSuchElementException if the tree is empty.
+     */
+    public void deleteMin() {
+        if (root == null) {
+            throw new NoSuchElementException("RedBlackTree is empty");
+        }
+        prepareRootForDelete();
+        root = deleteMin(root);
+        finishDelete();
+    }
+
+    private RBTreeNode<T> deleteMin(RBTreeNode<T> node) {
+        if (node.left == null) {
+            return null;
+        }
+        if (!isRed(node.left) && !isRed(node.left.left)) {
+            node = moveRedLeft(node);
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    /**
+     * Removes the largest item. Throws NoSuchElementException if the tree is empty.
+     */
+    public void deleteMax() {
+        if (root == null) {
+            throw new NoSuchElementException("RedBlackTree is empty");
+        }
+        prepareRootForDelete();
+        root = deleteMax(root);
+        finishDelete();
+    }
+
+    private RBTreeNode<T> deleteMax(RBTreeNode<T> node) {
+        if (isRed(node.left)) {
+            node = rotateRight(node);
+        }
+        if (node.right == null) {
+            return null;
+        }
+        if (!isRed(node.right) && !isRed(node.right.left)) {
+            node = moveRedRight(node);
+        }
+        node.right = deleteMax(node.right);
+        return balance(node);
+    }
+
+    /**
+     * Removes ITEM from the tree if it is present.
+     * @param item
+     * @return whether ITEM was removed
+     */
+    public boolean delete(T item) {
+        if (!contains(item)) {
+            return false;
+        }
+        prepareRootForDelete();
+        root = delete(root, item);
+        finishDelete();
+        return true;
+    }
+
+    private RBTreeNode<T> delete(RBTreeNode<T> node, T item) {
+        if (item.compareTo(node.item) < 0) {
+            if (!isRed(node.left) && !isRed(node.left.left)) {
+                node = moveRedLeft(node);
+            }
+            node.left = delete(node.left, item);
+        } else {
+            if (isRed(node.left)) {
+                node = rotateRight(node);
+            }
+            if (item.compareTo(node.item) == 0 && node.right == null) {
+                return null;
+            }
+            if (!isRed(node.right) && !isRed(node.right.left)) {
+                node = moveRedRight(node);
+            }
+            if (item.compareTo(node.item) == 0) {
+                // Items are final, so replace the node by one holding its successor
+                T successor = min(node.right).item;
+                node = new RBTreeNode<>(node.isBlack, successor, node.left, deleteMin(node.right));
+            } else {
+                node.right = delete(node.right, item);
+            }
+        }
+        return balance(node);
+    }
+
+    /**
+     * Returns an iterator over the items in ascending order.
+     * @return
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new TreeIterator(false);
+    }
+
+    /**
+     * Returns an iterator over the items in descending order.
+     * @return
+     */
+    public Iterator<T> descendingIterator() {
+        return new TreeIterator(true);
+    }
+
+    /* In-order (or reverse in-order) traversal driven by an explicit stack */
+    private class TreeIterator implements Iterator<T> {
+        private final Deque<RBTreeNode<T>> stack = new ArrayDeque<>();
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+
+        TreeIterator(boolean descending) {
+            this.descending = descending;
+            pushSpine(root);
+        }
+
+        /* Pushes NODE and its left descendants, or its right ones when descending */
+        private void pushSpine(RBTreeNode<T> node) {
+            while (node != null) {
+                stack.push(node);
+                node = descending ? node.right : node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            RBTreeNode<T> node = stack.pop();
+            pushSpine(descending ? node.left : node.right);
+            return node.item;
+        }
+    }
+
+    /**
+     * Builds a tree from ITEMS in O(n) time. ITEMS must be sorted in strictly
+     * ascending order.
+     * @param items
+     * @return
+     */
+    public static <T extends Comparable<T>> RedBlackTree<T> fromSorted(T[] items) {
+        return fromSorted(Arrays.asList(items));
+    }
+
+    private static <T extends Comparable<T>> RedBlackTree<T> fromSorted(List<T> items) {
+        for (int i = 1; i < items.size(); i++) {
+            if (items.get(i - 1).compareTo(items.get(i)) >= 0) {
+                throw new IllegalArgumentException("Items are not strictly ascending at index " + i);
+            }
+        }
+        RedBlackTree<T> tree = new RedBlackTree<>();
+        int n = items.size();
+        // The lowest 2-3 tree height whose capacity, 3^h - 1 keys, holds all N items
+        int height = 0;
+        long capacity = 0;
+        while (capacity < n) {
+            height += 1;
+            capacity = capacity * 3 + 2;
+        }
+        tree.root = build(items, 0, n, height);
+        tree.size = n;
+        return tree;
+    }
+
+    /**
+     * Builds a 2-3 tree of exactly HEIGHT levels from ITEMS[LO, HI), encoded as a
+     * left-leaning red-black tree whose root is black. A 2-3 tree of height h holds
+     * between 2^h - 1 and 3^h - 1 keys; each level becomes a 2-node while the remaining
+     * keys fit under two subtrees, and a 3-node otherwise, splitting the rest evenly.
+     */
+    private static <T extends Comparable<T>> RBTreeNode<T> build(List<T> items, int lo, int hi, int height) {
+        if (height == 0) {
+            return null;
+        }
+        int n = hi - lo;
+        long childCapacity = 0; // 3^(height - 1) - 1
+        for (int i = 1; i < height; i++) {
+            childCapacity = childCapacity * 3 + 2;
+        }
+        if (n - 1 <= 2 * childCapacity) {
+            int mid = lo + (n - 1) / 2;
+            return new RBTreeNode<>(true, items.get(mid),
+                    build(items, lo, mid, height - 1), build(items, mid + 1, hi, height - 1));
+        }
+        int third = (n - 2) / 3;
+        int extra = (n - 2) % 3;
+        int first = lo + third + (extra > 0 ? 1 : 0); // Index of the smaller key
+        int second = first + 1 + third + (extra > 1 ? 1 : 0); // Index of the larger key
+        RBTreeNode<T> red = new RBTreeNode<>(false, items.get(first),
+                build(items, lo, first, height - 1), build(items, first + 1, second, height - 1));
+        return new RBTreeNode<>(true, items.get(second), red, build(items, second + 1, hi, height - 1));
+    }
+
+    /**
+     * Returns a new tree holding every item in this tree or OTHER.
+     *
+     * Merges the two in-order sequences in O(m + n) and rebuilds with fromSorted, which
+     * is linear as well.
+     * @param other
+     * @return
+     */
+    public RedBlackTree<T> union(RedBlackTree<T> other) {
+        List<T> merged = new ArrayList<>(size + other.size);
+        Iterator<T> a = iterator();
+        Iterator<T> b = other.iterator();
+        T x = a.hasNext() ? a.next() : null;
+        T y = b.hasNext() ? b.next() : null;
+        while (x != null || y != null) {
+            int cmp = x == null ? 1 : y == null ? -1 : x.compareTo(y);
+            if (cmp <= 0) {
+                merged.add(x);
+                x = a.hasNext() ? a.next() : null;
+                if (cmp == 0) {
+                    y = b.hasNext() ? b.next() : null;
+                }
+            } else {
+                merged.add(y);
+                y = b.hasNext() ? b.next() : null;
+            }
+        }
+        return fromSorted(merged);
+    }
+
+    /**
+     * Returns a new tree holding the items that are in both this tree and OTHER, in
+     * O(m + n) time.
+     * @param other
+     * @return
+     */
+    public RedBlackTree<T> intersection(RedBlackTree<T> other) {
+        List<T> common = new ArrayList<>(Math.min(size, other.size));
+        Iterator<T> a = iterator();
+        Iterator<T> b = other.iterator();
+        T x = a.hasNext() ? a.next() : null;
+        T y = b.hasNext() ? b.next() : null;
+        while (x != null && y != null) {
+            int cmp = x.compareTo(y);
+            if (cmp == 0) {
+                common.add(x);
+            }
+            if (cmp <= 0) {
+                x = a.hasNext() ? a.next() : null;
+            }
+            if (cmp >= 0) {
+                y = b.hasNext() ? b.next() : null;
+            }
+        }
+        return fromSorted(common);
+    }
 }
@@ -0,0 +1,83 @@
+package DataStructure;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts items to and from a compact binary form so that data structures can
+ * move them out of the Java heap (temp files, snapshots, memory-mapped pages).
+ *
+ * Items are written through a DataOutput, which is usually backed by a buffered
+ * stream, and read back from a ByteBuffer, which is usually a memory-mapped region.
+ * A read that runs past the end of the buffer must surface as a
+ * java.nio.BufferUnderflowException, which is what the relative get methods of
+ * ByteBuffer already do.
+ *
+ * @param <T> The type of the items being serialized.
+ */
+public interface Serializer<T> {
+
+    /**
+     * Writes ITEM to OUT.
+     *
+     * @param item The item to write, never null.
+     * @param out The destination.
+     * @throws IOException if the underlying output fails.
+     */
+    void write(T item, DataOutput out) throws IOException;
+
+    /**
+     * Reads one item from the current position of IN and advances the position
+     * past it.
+     *
+     * @param in The source buffer.
+     * @return The decoded item.
+     */
+    T read(ByteBuffer in);
+
+    /** Fixed-width 4 byte encoding for Integer. */
+    Serializer<Integer> INTEGER = new Serializer<>() {
+        @Override
+        public void write(Integer item, DataOutput out) throws IOException {
+            out.writeInt(item);
+        }
+
+        @Override
+        public Integer read(ByteBuffer in) {
+            return in.getInt();
+        }
+    };
+
+    /** Fixed-width 8 byte encoding for Long. */
+    Serializer<Long> LONG = new Serializer<>() {
+        @Override
+        public void write(Long item, DataOutput out) throws IOException {
+            out.writeLong(item);
+        }
+
+        @Override
+        public Long read(ByteBuffer in) {
+            return in.getLong();
+        }
+    };
+
+    /** Length-prefixed UTF-8 encoding for String. */
+    Serializer<String> STRING = new Serializer<>() {
+        @Override
+        public void write(String item, DataOutput out) throws IOException {
+            byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(ByteBuffer in) {
+            int length = in.getInt();
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
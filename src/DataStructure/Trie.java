@@ -1,34 +1,312 @@
 package DataStructure;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Simple Trie implementation for storing and retrieving strings.
+ *
+ * Children are kept in arrays, never in a map of boxed characters. A node with few
+ * children, or with children spread far apart in the alphabet, keeps their characters
+ * sorted in a char[] next to a parallel array of nodes and searches it linearly or, past
+ * eight children, by binary search. A node whose children cover a dense range of
+ * characters, as the upper levels of an English dictionary do, indexes a node array
+ * directly by character. A node switches between the two layouts as children are added.
+ * Leaves, the majority of nodes, allocate no arrays at all.
+ *
+ * Children are visited in character order, so collect() and keysWithPrefix() return
+ * words sorted by their UTF-16 code units.
+ *
+ * Words may carry a score, and every node caches the best score below it, kept exact
+ * as scores go up or down. topK() uses it to find the best completions of a prefix
+ * without visiting the rest of its subtree. Scores live in small side objects that
+ * are only allocated on the paths to scored words; a node without one has only
+ * unscored words, of score 0, below it. A Trie that never sees a score pays one
+ * reference per node, which fits in the node's alignment padding, and unscored words
+ * inserted after scored ones add no score state. fuzzySearch() likewise only visits
+ * the part of the Trie within the allowed edit distance of its query.
+ *
+ * For a dictionary that is built once and then only queried, toDoubleArrayTrie() packs
+ * the whole trie into a single int array, and freeze() into a succinct FrozenTrie of a
+ * few bytes per word.
  */
 public class Trie {
 
+    // Nodes with at most this many children scan their labels linearly
+    private static final int LINEAR_SCAN_CHILDREN = 8;
+    // Nodes with at least this many children may switch to a direct-indexed array
+    private static final int DENSE_MIN_CHILDREN = 8;
+    // A direct-indexed array may span at most this many slots per child
+    private static final int DENSE_SLOTS_PER_CHILD = 2;
+    // toDoubleArrayTrie(): offsets tried before placing a node's children past the last used slot
+    private static final int PLACEMENT_MISSES = 32;
+
     // Node structure for the Trie
     private static class TrieNode {
-        Map<Character, TrieNode> children = new HashMap<>(); // Child nodes
+        char[] labels; // Sorted child characters while sparse; null while dense or childless
+        TrieNode[] children; // Parallel to labels while sparse; indexed by c - base while dense
+        char base; // Character of children[0] while dense
+        int size; // Number of children
         boolean isEndOfWord = false; // Marks end of a complete word
+        Scores scores; // Null while every word in this subtree is unscored
+
+        // Score of the word ending here, if any
+        double score() {
+            return scores == null ? 0 : scores.score;
+        }
+
+        // Best score of any word in this subtree
+        double maxScore() {
+            return scores == null ? 0 : scores.maxScore;
+        }
+
+        // Returns the child reached by C, or null
+        TrieNode child(char c) {
+            if (labels == null) {
+                if (children == null) {
+                    return null;
+                }
+                int i = c - base;
+                return i >= 0 && i < children.length ? children[i] : null;
+            }
+            int i = indexOf(c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        // Index of C in labels, or -(insertion point) - 1
+        private int indexOf(char c) {
+            if (size > LINEAR_SCAN_CHILDREN) {
+                return Arrays.binarySearch(labels, 0, size, c);
+            }
+            for (int i = 0; i < size; i++) {
+                if (labels[i] >= c) {
+                    return labels[i] == c ? i : -i - 1;
+                }
+            }
+            return -size - 1;
+        }
+
+        // Returns the child reached by C, creating it if needed
+        TrieNode childOrCreate(char c) {
+            TrieNode node = child(c);
+            if (node == null) {
+                node = new TrieNode();
+                addChild(c, node);
+            }
+            return node;
+        }
+
+        private void addChild(char c, TrieNode node) {
+            if (children == null) {
+                labels = new char[] {c};
+                children = new TrieNode[] {node};
+                size = 1;
+                return;
+            }
+            if (labels == null) {
+                int lo = Math.min(base, c);
+                int hi = Math.max(base + children.length - 1, c);
+                if (hi - lo + 1 <= DENSE_SLOTS_PER_CHILD * (size + 1)) {
+                    if (lo != base || hi - lo + 1 != children.length) {
+                        TrieNode[] grown = new TrieNode[hi - lo + 1];
+                        System.arraycopy(children, 0, grown, base - lo, children.length);
+                        children = grown;
+                        base = (char) lo;
+                    }
+                    children[c - base] = node;
+                    size += 1;
+                    return;
+                }
+                toSparse(); // The new child would leave the array mostly empty
+            }
+            int i = -indexOf(c) - 1;
+            if (size == labels.length) {
+                int capacity = size + (size >> 1) + 1;
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, i, labels, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            labels[i] = c;
+            children[i] = node;
+            size += 1;
+            if (size >= DENSE_MIN_CHILDREN && labels[size - 1] - labels[0] + 1 <= DENSE_SLOTS_PER_CHILD * size) {
+                toDense();
+            }
+        }
+
+        private void toDense() {
+            TrieNode[] dense = new TrieNode[labels[size - 1] - labels[0] + 1];
+            for (int i = 0; i < size; i++) {
+                dense[labels[i] - labels[0]] = children[i];
+            }
+            base = labels[0];
+            labels = null;
+            children = dense;
+        }
+
+        private void toSparse() {
+            char[] sparseLabels = new char[size + 1];
+            TrieNode[] sparseChildren = new TrieNode[size + 1];
+            int n = 0;
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != null) {
+                    sparseLabels[n] = (char) (base + i);
+                    sparseChildren[n] = children[i];
+                    n += 1;
+                }
+            }
+            labels = sparseLabels;
+            children = sparseChildren;
+        }
+
+        // Number of slots to visit with childAt and labelAt
+        int slots() {
+            return labels != null ? size : children == null ? 0 : children.length;
+        }
+
+        // Child in slot I, in character order; null for an empty dense slot
+        TrieNode childAt(int i) {
+            return children[i];
+        }
+
+        char labelAt(int i) {
+            return labels != null ? labels[i] : (char) (base + i);
+        }
+    }
+
+    // Score state of a node on the path to a scored word
+    private static class Scores {
+        double score;
+        double maxScore;
     }
 
     private final TrieNode root = new TrieNode(); // Root node of the Trie
+    private boolean scored = false; // Whether any word was inserted with a score
 
     /**
      * Inserts a word into the Trie.
      * @param word the word to insert
      */
     public void insert(String word) {
+        insert(word, 0, false);
+    }
+
+    /**
+     * Inserts a word into the Trie with a score for topK(), or changes the score of a
+     * word already present. A word inserted without a score has score 0.
+     * @param word the word to insert
+     * @param score the word's score; higher scores rank first
+     */
+    public void insert(String word, double score) {
+        if (Double.isNaN(score)) {
+            throw new IllegalArgumentException("Score must not be NaN");
+        }
+        insert(word, score, true);
+    }
+
+    // Helper: Inserts WORD, setting its score to SCORE if REPLACE or if the word is new
+    private void insert(String word, double score, boolean replace) {
+        if (!replace) {
+            TrieNode current = root;
+            for (int i = 0; i < word.length(); i++) {
+                current = current.childOrCreate(word.charAt(i)); // Create a new node if the character doesn't exist
+            }
+            if (current.isEndOfWord) {
+                return;
+            }
+            current.isEndOfWord = true; // Mark the last node as the end of a word
+            if (scored) {
+                raiseMaxScoresToZero(word);
+            }
+            return;
+        }
+        TrieNode[] path = new TrieNode[word.length() + 1]; // Nodes from the root down to the word
         TrieNode current = root;
-        for (char c : word.toCharArray()) {
+        path[0] = current;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
             // Create a new node if the character doesn't exist
-            current = current.children.computeIfAbsent(c, k -> new TrieNode());
+            current = current.childOrCreate(c);
+            path[i + 1] = current;
+        }
+        scored = true;
+        for (int d = path.length - 1; d >= 0; d--) {
+            allocateScores(path[d]);
         }
         current.isEndOfWord = true; // Mark the last node as the end of a word
+        current.scores.score = score;
+        updateMaxScores(path);
+    }
+
+    /*
+     * Accounts for a new unscored word, of score 0, along WORD's path. Nodes with score
+     * state form a subtree at the root, so they are a prefix of the path; below it the
+     * word's nodes keep no score state, and above it only a maxScore below 0 changes.
+     */
+    private void raiseMaxScoresToZero(String word) {
+        TrieNode node = root;
+        for (int i = 0; node != null && node.scores != null; i++) {
+            if (node.scores.maxScore < 0) {
+                node.scores.maxScore = 0;
+            }
+            node = i < word.length() ? node.child(word.charAt(i)) : null;
+        }
+    }
+
+    // Gives NODE its own score state, exact for the words below it so far
+    private static void allocateScores(TrieNode node) {
+        if (node.scores != null) {
+            return;
+        }
+        Scores scores = new Scores(); // An unscored word here has score 0
+        double best = node.isEndOfWord ? 0 : Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < node.slots(); i++) {
+            if (node.childAt(i) != null) {
+                best = Math.max(best, node.childAt(i).maxScore());
+            }
+        }
+        scores.maxScore = best;
+        node.scores = scores;
+    }
+
+    /*
+     * Restores maxScore from the bottom of PATH up after the score of its last node
+     * changed. Each ancestor only needs a scan of its children when the child on the
+     * path held its best score and that score went down. Every node on PATH has its
+     * own score state.
+     */
+    private static void updateMaxScores(TrieNode[] path) {
+        TrieNode node = path[path.length - 1];
+        double oldMax = node.scores.maxScore;
+        double newMax = node.scores.score;
+        for (int i = 0; i < node.slots(); i++) {
+            if (node.childAt(i) != null) {
+                newMax = Math.max(newMax, node.childAt(i).maxScore());
+            }
+        }
+        node.scores.maxScore = newMax;
+        for (int d = path.length - 2; d >= 0 && oldMax != newMax; d--) {
+            node = path[d];
+            double before = node.scores.maxScore;
+            if (newMax >= before) {
+                node.scores.maxScore = newMax; // The path now holds the best score
+            } else if (oldMax == before) {
+                // The path held the best score and lost it: rescan
+                double best = node.isEndOfWord ? node.scores.score : Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < node.slots(); i++) {
+                    if (node.childAt(i) != null) {
+                        best = Math.max(best, node.childAt(i).maxScore());
+                    }
+                }
+                node.scores.maxScore = best;
+            }
+            oldMax = before;
+            newMax = node.scores.maxScore;
+        }
     }
 
     /**
@@ -74,6 +352,189 @@ public class Trie {
         return results;
     }
 
+    /**
+     * Returns the K highest-scoring words that start with the given prefix, best first;
+     * words with equal scores come in alphabetical order.
+     *
+     * Every node caches the best score in its subtree, so the query is a best-first
+     * walk: a priority queue holds partial prefixes keyed by that cached score and
+     * finished words keyed by their own, and a word leaves the queue only when nothing
+     * left in it can beat it. The work depends on K, the word lengths and the fan-out
+     * along the way, not on how many words share the prefix.
+     * @param prefix the prefix to complete
+     * @param k the maximum number of words to return
+     * @return up to K words that start with the prefix, by descending score
+     */
+    public List<String> topK(String prefix, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        List<String> results = new ArrayList<>();
+        TrieNode start = searchWordLastNode(prefix);
+        if (start == null || k == 0) {
+            return results;
+        }
+        MinPQ<Completion> queue = new MinPQ<>();
+        queue.add(new Completion(prefix, start.maxScore(), start));
+        while (!queue.isEmpty() && results.size() < k) {
+            Completion best = queue.poll();
+            TrieNode node = best.node;
+            if (node == null) {
+                results.add(best.text); // A finished word beats everything left
+                continue;
+            }
+            if (node.isEndOfWord) {
+                queue.add(new Completion(best.text, node.score(), null));
+            }
+            for (int i = 0; i < node.slots(); i++) {
+                TrieNode child = node.childAt(i);
+                if (child != null) {
+                    queue.add(new Completion(best.text + node.labelAt(i), child.maxScore(), child));
+                }
+            }
+        }
+        return results;
+    }
+
+    /*
+     * An entry of the topK() queue: a finished word when NODE is null, otherwise the
+     * prefix TEXT leading to NODE with the best score below it. MinPQ polls the
+     * smallest, so higher scores compare smaller. On equal scores the alphabetically
+     * smaller text comes first, and a word before the subtree it heads; both keep
+     * equal-score words in alphabetical order.
+     */
+    private static class Completion implements Comparable<Completion> {
+        final String text;
+        final double score;
+        final TrieNode node;
+
+        Completion(String text, double score, TrieNode node) {
+            this.text = text;
+            this.score = score;
+            this.node = node;
+        }
+
+        @Override
+        public int compareTo(Completion other) {
+            int cmp = Double.compare(other.score, score);
+            if (cmp == 0) {
+                cmp = text.compareTo(other.text);
+            }
+            if (cmp == 0) {
+                cmp = Boolean.compare(node != null, other.node != null);
+            }
+            return cmp;
+        }
+    }
+
+    /**
+     * Returns the words within Levenshtein distance maxDistance of the query, that is,
+     * the words that can be turned into it by at most that many single-character
+     * insertions, deletions and substitutions. In prefix mode it returns instead the
+     * words that start with such a word, for typo-tolerant autocompletion.
+     *
+     * The Trie is walked depth-first while carrying one row of the edit-distance table
+     * per level: row[j] is the distance between the path so far and the first j
+     * characters of the query, and each child's row follows from its parent's in
+     * O(query length). A subtree is abandoned as soon as every entry of its row
+     * exceeds maxDistance, since a longer path can only be further away, so only a
+     * thin band of the Trie around the query is ever visited.
+     * @param query the word to match
+     * @param maxDistance the largest edit distance allowed
+     * @param prefixMode whether to match the query against prefixes of the words
+     * @param limit the maximum number of words to return
+     * @return the matching words, in character order
+     */
+    public List<String> fuzzySearch(String query, int maxDistance, boolean prefixMode, int limit) {
+        if (maxDistance < 0 || limit < 0) {
+            throw new IllegalArgumentException("maxDistance and limit must not be negative");
+        }
+        FuzzyWalk walk = new FuzzyWalk(query, maxDistance, prefixMode, limit);
+        int[] row = walk.row(0);
+        for (int j = 0; j < row.length; j++) {
+            row[j] = j; // The empty path is j deletions away from query[0, j)
+        }
+        if (limit > 0) {
+            walk.visit(root, 0);
+        }
+        return walk.results;
+    }
+
+    // State of one fuzzySearch() walk
+    private static class FuzzyWalk {
+        final String query;
+        final int maxDistance;
+        final boolean prefixMode;
+        final int limit;
+        final List<String> results = new ArrayList<>();
+        final StringBuilder word = new StringBuilder(); // Path to the current node
+        final List<int[]> rows = new ArrayList<>(); // DP row of each level, reused across siblings
+
+        FuzzyWalk(String query, int maxDistance, boolean prefixMode, int limit) {
+            this.query = query;
+            this.maxDistance = maxDistance;
+            this.prefixMode = prefixMode;
+            this.limit = limit;
+        }
+
+        int[] row(int depth) {
+            while (rows.size() <= depth) {
+                rows.add(new int[query.length() + 1]);
+            }
+            return rows.get(depth);
+        }
+
+        // Visits NODE, whose path is WORD and whose DP row is row(DEPTH)
+        void visit(TrieNode node, int depth) {
+            int[] row = rows.get(depth);
+            int m = query.length();
+            if (row[m] <= maxDistance) {
+                if (prefixMode) {
+                    collect(node); // Every word below extends a close enough prefix
+                    return;
+                }
+                if (node.isEndOfWord) {
+                    results.add(word.toString());
+                }
+            }
+            for (int i = 0; i < node.slots() && results.size() < limit; i++) {
+                TrieNode child = node.childAt(i);
+                if (child == null) {
+                    continue; // An empty slot of a dense node
+                }
+                char c = node.labelAt(i);
+                int[] next = row(depth + 1);
+                next[0] = row[0] + 1;
+                int best = next[0];
+                for (int j = 1; j <= m; j++) {
+                    int substitute = row[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+                    next[j] = Math.min(substitute, Math.min(row[j], next[j - 1]) + 1);
+                    best = Math.min(best, next[j]);
+                }
+                if (best <= maxDistance) {
+                    word.append(c);
+                    visit(child, depth + 1);
+                    word.setLength(word.length() - 1);
+                }
+            }
+        }
+
+        // Adds the words below NODE, up to the limit
+        void collect(TrieNode node) {
+            if (node.isEndOfWord && results.size() < limit) {
+                results.add(word.toString());
+            }
+            for (int i = 0; i < node.slots() && results.size() < limit; i++) {
+                TrieNode child = node.childAt(i);
+                if (child != null) {
+                    word.append(node.labelAt(i));
+                    collect(child);
+                    word.setLength(word.length() - 1);
+                }
+            }
+        }
+    }
+
     /**
      * Finds the longest prefix of the given word that exists in the Trie.
      * @param word the word to search for
@@ -84,7 +545,7 @@ public class Trie {
         int length = 0; // Track the length of the matching prefix
         for (int i = 0; i < word.length(); i++) {
             char c = word.charAt(i);
-            TrieNode node = current.children.get(c);
+            TrieNode node = current.child(c);
             if (node == null) {
                 break; // Stop if the path breaks
             }
@@ -96,14 +557,164 @@ public class Trie {
         return word.substring(0, length); // Return the longest prefix found
     }
 
+    /**
+     * Packs the Trie into a DoubleArrayTrie, which answers the same queries from a
+     * single int array. Later inserts into this Trie are not reflected in it.
+     * @return a read-only copy of the Trie
+     */
+    public DoubleArrayTrie toDoubleArrayTrie() {
+        // Number the distinct characters 1..A in ascending order
+        BitSet used = new BitSet();
+        ArrayDeque<TrieNode> pending = new ArrayDeque<>();
+        pending.add(root);
+        int nodes = 0;
+        while (!pending.isEmpty()) {
+            TrieNode node = pending.poll();
+            nodes += 1;
+            for (int i = 0; i < node.slots(); i++) {
+                if (node.childAt(i) != null) {
+                    used.set(node.labelAt(i));
+                    pending.add(node.childAt(i));
+                }
+            }
+        }
+        char[] alphabet = new char[used.cardinality()];
+        int[] codes = new int[used.length()];
+        for (int c = used.nextSetBit(0), code = 1; c >= 0; c = used.nextSetBit(c + 1), code++) {
+            alphabet[code - 1] = (char) c;
+            codes[c] = code;
+        }
+
+        // Place the nodes breadth-first, each node's children at the lowest free offset
+        int[] base = new int[Math.max(nodes + alphabet.length + 1, 16)];
+        int[] check = new int[base.length];
+        Arrays.fill(check, -1);
+        BitSet taken = new BitSet(); // Slots already holding a state
+        BitSet isEndOfWord = new BitSet();
+        check[0] = 0;
+        taken.set(0);
+        int firstFree = alphabet.length + 1; // Lowest free slot that a child of any code can use
+        int last = 0; // Highest slot in use
+        int words = 0;
+        ArrayDeque<TrieNode> nodeQueue = new ArrayDeque<>();
+        ArrayDeque<Integer> stateQueue = new ArrayDeque<>();
+        nodeQueue.add(root);
+        stateQueue.add(0);
+        int[] childCodes = new int[alphabet.length];
+        while (!nodeQueue.isEmpty()) {
+            TrieNode node = nodeQueue.poll();
+            int state = stateQueue.poll();
+            if (node.isEndOfWord) {
+                isEndOfWord.set(state);
+                words += 1;
+            }
+            int k = 0;
+            for (int i = 0; i < node.slots(); i++) {
+                if (node.childAt(i) != null) {
+                    childCodes[k++] = codes[node.labelAt(i)];
+                }
+            }
+            if (k == 0) {
+                continue;
+            }
+            firstFree = taken.nextClearBit(firstFree);
+            int offset = -1;
+            int slot = taken.nextClearBit(Math.max(firstFree, childCodes[0] + 1));
+            for (int misses = 0; misses < PLACEMENT_MISSES && offset < 0; misses++) {
+                offset = slot - childCodes[0];
+                for (int j = 1; j < k; j++) {
+                    if (taken.get(offset + childCodes[j])) {
+                        offset = -1;
+                        break;
+                    }
+                }
+                slot = taken.nextClearBit(slot + 1);
+            }
+            if (offset < 0) {
+                // The free slots below are too fragmented; everything past the last slot is free
+                offset = Math.max(last + 1 - childCodes[0], 1);
+            }
+            int end = offset + childCodes[k - 1];
+            if (end >= base.length) {
+                int capacity = Math.max(end + 1, base.length + (base.length >> 1));
+                base = Arrays.copyOf(base, capacity);
+                int oldLength = check.length;
+                check = Arrays.copyOf(check, capacity);
+                Arrays.fill(check, oldLength, capacity, -1);
+            }
+            base[state] = offset;
+            int j = 0;
+            for (int i = 0; i < node.slots(); i++) {
+                TrieNode child = node.childAt(i);
+                if (child != null) {
+                    int childState = offset + childCodes[j++];
+                    check[childState] = state;
+                    taken.set(childState);
+                    nodeQueue.add(child);
+                    stateQueue.add(childState);
+                }
+            }
+            last = Math.max(last, end);
+        }
+        return new DoubleArrayTrie(Arrays.copyOf(base, last + 1), Arrays.copyOf(check, last + 1),
+                isEndOfWord, alphabet, words);
+    }
+
+    /**
+     * Converts the Trie into a succinct FrozenTrie (a LOUDS bit vector plus a label
+     * array), which answers the same queries in a few bytes per word. Later inserts
+     * into this Trie are not reflected in it.
+     * @return a read-only copy of the Trie
+     */
+    public FrozenTrie freeze() {
+        // Number the nodes breadth-first; the queue then lists them in that order
+        List<TrieNode> order = new ArrayList<>();
+        order.add(root);
+        for (int n = 0; n < order.size(); n++) {
+            TrieNode node = order.get(n);
+            for (int i = 0; i < node.slots(); i++) {
+                if (node.childAt(i) != null) {
+                    order.add(node.childAt(i));
+                }
+            }
+        }
+        int nodes = order.size();
+        long[] louds = new long[(2 * nodes - 1 + 63) / 64];
+        char[] labels = new char[nodes - 1];
+        long[] isEndOfWord = new long[(nodes + 63) / 64];
+        int bit = 0;
+        int label = 0;
+        int words = 0;
+        for (int n = 0; n < nodes; n++) {
+            TrieNode node = order.get(n);
+            if (node.isEndOfWord) {
+                isEndOfWord[n >>> 6] |= 1L << n;
+                words += 1;
+            }
+            for (int i = 0; i < node.slots(); i++) {
+                if (node.childAt(i) != null) {
+                    louds[bit >>> 6] |= 1L << bit; // One 1 per child
+                    bit += 1;
+                    labels[label++] = node.labelAt(i);
+                }
+            }
+            bit += 1; // Then a 0
+        }
+        return new FrozenTrie(louds, labels, isEndOfWord, nodes, words);
+    }
+
     // Helper: Recursively collects all words starting from the given node
     private void collectAllWords(TrieNode node, StringBuilder word, List<String> results) {
         if (node.isEndOfWord) {
             results.add(word.toString()); // Add the word to results if it's complete
         }
-        for (Map.Entry<Character, TrieNode> entry : node.children.entrySet()) {
-            word.append(entry.getKey()); // Add the character
-            collectAllWords(entry.getValue(), word, results); // Recurse into the next node
+        for (int i = 0; i < node.slots(); i++) {
+            TrieNode child = node.childAt(i);
+            if (child == null) {
+                continue; // An empty slot of a dense node
+            }
+            word.append(node.labelAt(i)); // Add the character
+            collectAllWords(child, word, results); // Recurse into the next node
             word.deleteCharAt(word.length() - 1); // Backtrack after recursion
         }
     }
@@ -111,8 +722,8 @@ public class Trie {
     // Helper: Finds the node corresponding to the last character of the word or prefix
     private TrieNode searchWordLastNode(String word) {
         TrieNode current = root;
-        for (char c : word.toCharArray()) {
-            TrieNode node = current.children.get(c);
+        for (int i = 0; i < word.length(); i++) {
+            TrieNode node = current.child(word.charAt(i));
             if (node == null) {
                 return null; // Return null if the character doesn't exist
             }